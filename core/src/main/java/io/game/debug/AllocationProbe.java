@@ -0,0 +1,95 @@
+package io.game.debug;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mide los bytes reservados por el hilo de render entre begin() y end().
+ *
+ * En régimen estable (jugando, sin cambiar de nivel) un frame no debería
+ * reservar nada: todo lo que se reserva acaba en el recolector de basura y
+ * tarde o temprano en una pausa. Tras WARMUP_FRAMES frames de calentamiento
+ * (texturas, pools y JIT), cada frame que reserve memoria se avisa por consola.
+ *
+ * Se activa arrancando con -Dgame.allocProbe=true; si la JVM no permite medir
+ * reservas por hilo la sonda queda desactivada y no cuesta nada.
+ */
+public final class AllocationProbe {
+
+    public static final int WARMUP_FRAMES = 120;
+
+    private final com.sun.management.ThreadMXBean bean;
+    private final boolean enabled;
+    private long threadId;
+
+    private long startBytes;
+    private long lastFrameBytes;
+    private long maxFrameBytes;
+    private int frames;
+    private int allocatingFrames;
+
+    public AllocationProbe() {
+        this(Boolean.getBoolean("game.allocProbe"));
+    }
+
+    public AllocationProbe(boolean requested) {
+        com.sun.management.ThreadMXBean b = null;
+        if (requested && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            b = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (b.isThreadAllocatedMemorySupported()) {
+                b.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                b = null;
+            }
+        }
+        this.bean = b;
+        this.enabled = b != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Vuelve a calentar (p. ej. tras generar un nivel nuevo) */
+    public void reset() {
+        frames = 0;
+        allocatingFrames = 0;
+        maxFrameBytes = 0;
+        lastFrameBytes = 0;
+    }
+
+    public void begin() {
+        if (!enabled) return;
+        threadId = Thread.currentThread().getId();
+        startBytes = bean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Cierra la medición del frame.
+     * @return true si el frame reservó memoria después del calentamiento
+     */
+    public boolean end() {
+        if (!enabled) return false;
+        lastFrameBytes = bean.getThreadAllocatedBytes(threadId) - startBytes;
+        frames++;
+        if (frames <= WARMUP_FRAMES || lastFrameBytes <= 0) return false;
+
+        allocatingFrames++;
+        if (lastFrameBytes > maxFrameBytes) maxFrameBytes = lastFrameBytes;
+        // el mensaje se construye fuera de la medición (entre end() y el siguiente begin())
+        System.out.println("[alloc] frame " + frames + " reservó " + lastFrameBytes
+            + " bytes (máx " + maxFrameBytes + ", " + allocatingFrames + " frames con reservas)");
+        return true;
+    }
+
+    public long getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    public long getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    public int getAllocatingFrames() {
+        return allocatingFrames;
+    }
+}
@@ -0,0 +1,142 @@
+package io.game.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * Dibujo de depuración en coordenadas del mundo (F2 en GameScreen o
+ * -Dgame.debugDraw=true).
+ *
+ * Cualquier sistema encola figuras (paredes, hitboxes, caminos, celdas) con
+ * rect(), fillRect(), line() o cross() mientras actualiza o dibuja, y la
+ * pantalla las vacía todas de una vez con flush(), después de terminar el
+ * SpriteBatch: un solo ShapeRenderer que vive toda la partida, una pasada de
+ * rellenos y otra de líneas, sin cortar el lote de sprites.
+ *
+ * Desactivado, cada llamada se queda en una comprobación; el ShapeRenderer no
+ * se crea hasta el primer flush() con algo que dibujar.
+ */
+public final class DebugDraw {
+
+    // por figura: x1, y1, x2, y2 (o x, y, ancho, alto) y el color empaquetado
+    private static final int STRIDE = 5;
+
+    private static boolean enabled = Boolean.getBoolean("game.debugDraw");
+    private static final FloatArray lines = new FloatArray(false, 1024);
+    private static final FloatArray fills = new FloatArray(false, 256);
+    private static final Color color = new Color();
+    private static ShapeRenderer shapes;
+
+    private DebugDraw() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        DebugDraw.enabled = enabled;
+        if (!enabled) clear();
+    }
+
+    public static void toggle() {
+        setEnabled(!enabled);
+    }
+
+    /** Segmento de (x1, y1) a (x2, y2) */
+    public static void line(float x1, float y1, float x2, float y2, Color c) {
+        if (!enabled) return;
+        push(lines, x1, y1, x2, y2, c.toFloatBits());
+    }
+
+    /** Contorno de un rectángulo con esquina inferior izquierda en (x, y) */
+    public static void rect(float x, float y, float width, float height, Color c) {
+        if (!enabled) return;
+        float bits = c.toFloatBits();
+        float x2 = x + width, y2 = y + height;
+        push(lines, x, y, x2, y, bits);
+        push(lines, x2, y, x2, y2, bits);
+        push(lines, x2, y2, x, y2, bits);
+        push(lines, x, y2, x, y, bits);
+    }
+
+    /** Rectángulo relleno; con un color translúcido sirve para marcar celdas */
+    public static void fillRect(float x, float y, float width, float height, Color c) {
+        if (!enabled) return;
+        push(fills, x, y, width, height, c.toFloatBits());
+    }
+
+    /** Aspa centrada en (x, y), para marcar puntos */
+    public static void cross(float x, float y, float size, Color c) {
+        if (!enabled) return;
+        float bits = c.toFloatBits();
+        float h = size * 0.5f;
+        push(lines, x - h, y - h, x + h, y + h, bits);
+        push(lines, x - h, y + h, x + h, y - h, bits);
+    }
+
+    private static void push(FloatArray a, float v0, float v1, float v2, float v3, float bits) {
+        float[] items = a.ensureCapacity(STRIDE);
+        int n = a.size;
+        items[n] = v0;
+        items[n + 1] = v1;
+        items[n + 2] = v2;
+        items[n + 3] = v3;
+        items[n + 4] = bits;
+        a.size = n + STRIDE;
+    }
+
+    /**
+     * Dibuja y vacía la cola. Llamar una vez por frame, fuera de batch.begin()/end().
+     * @param projection cámara del mundo
+     */
+    public static void flush(Matrix4 projection) {
+        if (!enabled || (lines.size == 0 && fills.size == 0)) {
+            clear();
+            return;
+        }
+        if (shapes == null) shapes = new ShapeRenderer(8192);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapes.setProjectionMatrix(projection);
+
+        if (fills.size > 0) {
+            shapes.begin(ShapeRenderer.ShapeType.Filled);
+            float[] f = fills.items;
+            for (int i = 0; i < fills.size; i += STRIDE) {
+                Color.abgr8888ToColor(color, f[i + 4]);
+                shapes.setColor(color);
+                shapes.rect(f[i], f[i + 1], f[i + 2], f[i + 3]);
+            }
+            shapes.end();
+        }
+        if (lines.size > 0) {
+            shapes.begin(ShapeRenderer.ShapeType.Line);
+            float[] l = lines.items;
+            for (int i = 0; i < lines.size; i += STRIDE) {
+                Color.abgr8888ToColor(color, l[i + 4]);
+                shapes.setColor(color);
+                shapes.line(l[i], l[i + 1], l[i + 2], l[i + 3]);
+            }
+            shapes.end();
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        clear();
+    }
+
+    public static void clear() {
+        lines.clear();
+        fills.clear();
+    }
+
+    public static void dispose() {
+        clear();
+        if (shapes != null) shapes.dispose();
+        shapes = null;
+    }
+}
@@ -0,0 +1,168 @@
+package io.game.debug;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Eventos propios para Java Flight Recorder.
+ *
+ * Con una grabación en marcha (-XX:StartFlightRecording o jcmd JFR.start) se
+ * registran las fases de la generación de mazmorras, cada inicio de nivel, las
+ * cargas de recursos y las fases de simulación y dibujo que pasen de 1 ms, junto
+ * a la actividad del GC y del JIT de la misma grabación.
+ *
+ * Los métodos begin* devuelven null si ninguna grabación en marcha tiene activo
+ * el evento, y commit* aceptan null, así que sin grabación el coste es una
+ * comprobación y no se crea ningún objeto (tampoco después de parar una). Si la
+ * JVM no trae JFR o se arranca con -Dgame.jfr=false, las clases de eventos ni
+ * siquiera se cargan.
+ */
+public final class GameEvents {
+
+    public static final boolean AVAILABLE = detect();
+
+    private GameEvents() {
+    }
+
+    private static boolean detect() {
+        if ("false".equals(System.getProperty("game.jfr"))) return false;
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Un evento de cada tipo para preguntar con isEnabled() si alguna grabación
+     * en marcha lo tiene activo; vuelve a false al parar las grabaciones. La clase
+     * se carga con el primer begin*, nunca si JFR no está disponible.
+     */
+    private static final class Probes {
+        static final GenerationPhase GENERATION = new GenerationPhase();
+        static final LevelStart LEVEL = new LevelStart();
+        static final FramePhase PHASE = new FramePhase();
+        static final AssetLoad ASSET = new AssetLoad();
+    }
+
+    // ============================================================
+    // EVENTOS
+    // ============================================================
+
+    @Name("io.game.GenerationPhase")
+    @Label("Fase de generación")
+    @Category({"Juego", "Mazmorra"})
+    public static final class GenerationPhase extends Event {
+        @Label("Nivel")
+        public int level;
+        @Label("Fase")
+        public String phase;
+        @Label("Habitaciones")
+        public int rooms;
+    }
+
+    @Name("io.game.LevelStart")
+    @Label("Inicio de nivel")
+    @Category({"Juego", "Mazmorra"})
+    public static final class LevelStart extends Event {
+        @Label("Nivel")
+        public int level;
+        @Label("Habitaciones")
+        public int rooms;
+        @Label("Enemigos")
+        public int enemies;
+        @Label("Semilla")
+        public long seed;
+    }
+
+    @Name("io.game.FramePhase")
+    @Label("Fase de frame")
+    @Category({"Juego", "Frame"})
+    @Threshold("1 ms")
+    public static final class FramePhase extends Event {
+        @Label("Grupo")
+        public String group;
+        @Label("Fase")
+        public String phase;
+    }
+
+    @Name("io.game.AssetLoad")
+    @Label("Carga de recursos")
+    @Category({"Juego", "Recursos"})
+    public static final class AssetLoad extends Event {
+        @Label("Recurso")
+        public String asset;
+        @Label("Texturas")
+        public int textures;
+        @Label("Frames")
+        public int frames;
+    }
+
+    // ============================================================
+    // AUXILIARES
+    // ============================================================
+
+    public static GenerationPhase beginGeneration() {
+        if (!AVAILABLE || !Probes.GENERATION.isEnabled()) return null;
+        GenerationPhase e = new GenerationPhase();
+        e.begin();
+        return e;
+    }
+
+    public static void commitGeneration(GenerationPhase e, int level, String phase, int rooms) {
+        if (e == null) return;
+        e.level = level;
+        e.phase = phase;
+        e.rooms = rooms;
+        e.commit();
+    }
+
+    public static LevelStart beginLevel() {
+        if (!AVAILABLE || !Probes.LEVEL.isEnabled()) return null;
+        LevelStart e = new LevelStart();
+        e.begin();
+        return e;
+    }
+
+    public static void commitLevel(LevelStart e, int level, int rooms, int enemies, long seed) {
+        if (e == null) return;
+        e.level = level;
+        e.rooms = rooms;
+        e.enemies = enemies;
+        e.seed = seed;
+        e.commit();
+    }
+
+    public static FramePhase beginPhase() {
+        if (!AVAILABLE || !Probes.PHASE.isEnabled()) return null;
+        FramePhase e = new FramePhase();
+        e.begin();
+        return e;
+    }
+
+    public static void commitPhase(FramePhase e, String group, String phase) {
+        if (e == null) return;
+        e.group = group;
+        e.phase = phase;
+        e.commit();
+    }
+
+    public static AssetLoad beginAssetLoad() {
+        if (!AVAILABLE || !Probes.ASSET.isEnabled()) return null;
+        AssetLoad e = new AssetLoad();
+        e.begin();
+        return e;
+    }
+
+    public static void commitAssetLoad(AssetLoad e, String asset, int textures, int frames) {
+        if (e == null) return;
+        e.asset = asset;
+        e.textures = textures;
+        e.frames = frames;
+        e.commit();
+    }
+}
@@ -0,0 +1,250 @@
+package io.game.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Panel de rendimiento superpuesto (F3 en GameScreen).
+ *
+ * Muestra el historial de tiempos de frame, un histograma de FPS, el tiempo de
+ * cada fase (las de los PhaseTimer que recibe), los contadores de GLProfiler
+ * (draw calls, cambios de textura y de shader) y los recuentos del nivel.
+ *
+ * Oculto no mide nada: los PhaseTimer y el GLProfiler solo se activan
+ * mientras se muestra, y la fuente y el ShapeRenderer se crean la primera vez.
+ */
+public final class PerfHud implements Disposable {
+
+    public static final int HISTORY = 120;
+
+    private static final float TARGET_MS = 1000f / 60f;
+    private static final float GRAPH_HEIGHT = 80f;
+    private static final float MS_SCALE = GRAPH_HEIGHT / (TARGET_MS * 3); // 50 ms llenan la gráfica
+    private static final float WIDTH = 360f;
+    private static final float LINE = 18f;
+
+    // límites superiores de los grupos del histograma de FPS
+    private static final int[] FPS_LIMITS = {20, 30, 45, 55, 65, Integer.MAX_VALUE};
+    private static final String[] FPS_LABELS = {"<20", "<30", "<45", "<55", "<65", "65+"};
+
+    private final PhaseTimer[] timers;
+    private final GLProfiler profiler;
+
+    private final float[] frameMs = new float[HISTORY];
+    private int head = 0;
+    private int filled = 0;
+    private final int[] fpsCounts = new int[FPS_LIMITS.length];
+
+    private int drawCalls, textureBindings, shaderSwitches;
+    private int enemies, corpses, rooms, level;
+    private float generationMs;
+    private float resolutionScale = 1f;
+
+    private boolean visible = false;
+    private ShapeRenderer shapes;
+    private BitmapFont font;
+    private final StringBuilder text = new StringBuilder();
+
+    public PerfHud(PhaseTimer... timers) {
+        this.timers = timers;
+        this.profiler = new GLProfiler(Gdx.graphics);
+    }
+
+    public void toggle() {
+        visible = !visible;
+        for (PhaseTimer t : timers) t.setEnabled(visible);
+        if (visible) {
+            profiler.enable();
+            profiler.reset();
+            head = 0;
+            filled = 0;
+        } else {
+            profiler.disable();
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /** Recuentos del nivel que se muestran en el panel */
+    public void setCounts(int enemies, int corpses, int rooms, int level, float generationMs) {
+        this.enemies = enemies;
+        this.corpses = corpses;
+        this.rooms = rooms;
+        this.level = level;
+        this.generationMs = generationMs;
+    }
+
+    /** Escala actual de la resolución dinámica del mundo */
+    public void setResolutionScale(float scale) {
+        this.resolutionScale = scale;
+    }
+
+    /**
+     * Cierra el frame (tiempos de fase y contadores de GL) y dibuja el panel.
+     * Llamar al final del render, fuera de batch.begin()/end().
+     * @param delta duración del frame en segundos
+     * @param projection cámara de la UI (coordenadas de pantalla)
+     */
+    public void render(SpriteBatch batch, Matrix4 projection, float delta) {
+        if (!visible) return;
+
+        for (PhaseTimer t : timers) t.endFrame();
+        // los contadores se leen antes de dibujar el panel, que no se cuenta
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        shaderSwitches = profiler.getShaderSwitches();
+
+        frameMs[head] = delta * 1000f;
+        head = (head + 1) % HISTORY;
+        if (filled < HISTORY) filled++;
+        countFps();
+
+        if (shapes == null) {
+            shapes = new ShapeRenderer();
+            font = new BitmapFont();
+        }
+
+        float left = Gdx.graphics.getWidth() - WIDTH - 10;
+        float top = Gdx.graphics.getHeight() - 10;
+        float lines = 4 + countPhases();
+        float textHeight = lines * LINE;
+        float height = GRAPH_HEIGHT * 2 + textHeight + 30;
+        float bottom = top - height;
+
+        drawGraphs(projection, left, bottom, top);
+        drawText(batch, projection, left + 8, top - GRAPH_HEIGHT * 2 - 24);
+
+        profiler.reset();
+    }
+
+    private void countFps() {
+        for (int b = 0; b < fpsCounts.length; b++) fpsCounts[b] = 0;
+        for (int i = 0; i < filled; i++) {
+            float ms = frameMs[i];
+            int fps = ms > 0 ? (int) (1000f / ms) : Integer.MAX_VALUE - 1;
+            int b = 0;
+            while (fps >= FPS_LIMITS[b]) b++;
+            fpsCounts[b]++;
+        }
+    }
+
+    private int countPhases() {
+        int n = 0;
+        for (PhaseTimer t : timers) n += t.size();
+        return n;
+    }
+
+    private void drawGraphs(Matrix4 projection, float left, float bottom, float top) {
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+
+        shapes.setColor(0f, 0f, 0f, 0.6f);
+        shapes.rect(left, bottom, WIDTH, top - bottom);
+
+        // historial de tiempos de frame, el más reciente a la derecha
+        float graphY = top - GRAPH_HEIGHT - 8;
+        float barW = (WIDTH - 16) / HISTORY;
+        for (int k = 0; k < filled; k++) {
+            int i = (head - filled + k + HISTORY) % HISTORY;
+            float ms = frameMs[i];
+            if (ms <= TARGET_MS * 1.05f) shapes.setColor(Color.GREEN);
+            else if (ms <= TARGET_MS * 2) shapes.setColor(Color.YELLOW);
+            else shapes.setColor(Color.RED);
+            float h = Math.min(ms * MS_SCALE, GRAPH_HEIGHT);
+            shapes.rect(left + 8 + (HISTORY - filled + k) * barW, graphY, barW, h);
+        }
+        // objetivo de 60 FPS
+        shapes.setColor(Color.WHITE);
+        shapes.rect(left + 8, graphY + TARGET_MS * MS_SCALE, WIDTH - 16, 1);
+
+        // histograma de FPS de los últimos HISTORY frames
+        float histY = graphY - GRAPH_HEIGHT - 8;
+        float slot = (WIDTH - 16) / fpsCounts.length;
+        shapes.setColor(Color.SKY);
+        for (int b = 0; b < fpsCounts.length; b++) {
+            float h = filled > 0 ? (GRAPH_HEIGHT - LINE) * fpsCounts[b] / filled : 0;
+            shapes.rect(left + 8 + b * slot + 4, histY + LINE, slot - 8, h);
+        }
+
+        shapes.end();
+    }
+
+    private void drawText(SpriteBatch batch, Matrix4 projection, float x, float y) {
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.setColor(Color.WHITE);
+
+        // etiquetas del histograma, bajo sus barras
+        float slot = (WIDTH - 16) / fpsCounts.length;
+        for (int b = 0; b < FPS_LABELS.length; b++) {
+            font.draw(batch, FPS_LABELS[b], x + b * slot + 4, y + 18);
+        }
+
+        text.setLength(0);
+        text.append("FPS ").append(Gdx.graphics.getFramesPerSecond()).append("   frame ");
+        appendMs(text, frameMs[(head - 1 + HISTORY) % HISTORY]);
+        font.draw(batch, text, x, y);
+        y -= LINE;
+
+        for (PhaseTimer t : timers) {
+            for (int p = 0; p < t.size(); p++) {
+                text.setLength(0);
+                text.append(t.getName(p)).append(": ");
+                appendMs(text, t.getMillis(p));
+                font.draw(batch, text, x, y);
+                y -= LINE;
+            }
+        }
+
+        text.setLength(0);
+        text.append("draw calls ").append(drawCalls)
+            .append("   texturas ").append(textureBindings)
+            .append("   shaders ").append(shaderSwitches);
+        font.draw(batch, text, x, y);
+        y -= LINE;
+
+        text.setLength(0);
+        text.append("enemigos ").append(enemies)
+            .append("   cadáveres ").append(corpses)
+            .append("   salas ").append(rooms);
+        font.draw(batch, text, x, y);
+        y -= LINE;
+
+        text.setLength(0);
+        text.append("nivel ").append(level).append("   generación ");
+        appendMs(text, generationMs);
+        text.append("   resolución ").append(Math.round(resolutionScale * 100)).append('%');
+        font.draw(batch, text, x, y);
+
+        batch.end();
+    }
+
+    /** Milisegundos con dos decimales, sin crear cadenas */
+    private static void appendMs(StringBuilder sb, float ms) {
+        int hundredths = Math.round(ms * 100);
+        sb.append(hundredths / 100).append('.');
+        int frac = hundredths % 100;
+        if (frac < 10) sb.append('0');
+        sb.append(frac).append(" ms");
+    }
+
+    @Override
+    public void dispose() {
+        if (visible) profiler.disable();
+        if (shapes != null) shapes.dispose();
+        if (font != null) font.dispose();
+        shapes = null;
+        font = null;
+    }
+}
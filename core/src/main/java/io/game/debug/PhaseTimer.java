@@ -0,0 +1,88 @@
+package io.game.debug;
+
+/**
+ * Cronómetro por fases de un frame (o de un paso de simulación).
+ *
+ * Se marca el inicio con begin() y el final de cada fase con lap(fase); el
+ * tiempo se acumula hasta endFrame(), que lo deja como último valor medido.
+ * Con varios pasos de simulación en un frame, sus tiempos se suman.
+ *
+ * Desactivado (por defecto) no llama a System.nanoTime() ni cuesta nada más
+ * que una comprobación; lo activa el HUD de rendimiento cuando se muestra.
+ * Con una grabación de JFR en marcha, además, cada fase que pase de 1 ms queda
+ * registrada como evento GameEvents.FramePhase, esté o no activado.
+ */
+public final class PhaseTimer {
+
+    private final String group;
+    private final String[] names;
+    private final long[] current;
+    private final long[] last;
+    private boolean enabled;
+    private long mark;
+    // evento de JFR de la fase en curso (null sin grabación)
+    private GameEvents.FramePhase event;
+
+    /**
+     * @param group nombre del grupo de fases en los eventos de JFR ("simulación", "dibujo")
+     * @param names nombre de cada fase, en el orden de sus índices
+     */
+    public PhaseTimer(String group, String... names) {
+        this.group = group;
+        this.names = names;
+        this.current = new long[names.length];
+        this.last = new long[names.length];
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        for (int i = 0; i < names.length; i++) {
+            current[i] = 0;
+            last[i] = 0;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin() {
+        if (enabled) mark = System.nanoTime();
+        event = GameEvents.beginPhase();
+    }
+
+    /** Cierra la fase indicada y empieza a contar la siguiente */
+    public void lap(int phase) {
+        if (event != null) {
+            GameEvents.commitPhase(event, group, names[phase]);
+            event = GameEvents.beginPhase();
+        }
+        if (!enabled) return;
+        long now = System.nanoTime();
+        current[phase] += now - mark;
+        mark = now;
+    }
+
+    /** Fija los tiempos acumulados como los del último frame y vuelve a cero */
+    public void endFrame() {
+        if (!enabled) return;
+        for (int i = 0; i < names.length; i++) {
+            last[i] = current[i];
+            current[i] = 0;
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int phase) {
+        return names[phase];
+    }
+
+    /** Tiempo de la fase en el último frame, en milisegundos */
+    public float getMillis(int phase) {
+        return last[phase] / 1e6f;
+    }
+}
@@ -3,18 +3,28 @@ package io.game.entities;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
+import io.game.managers.AnimationHandle;
 import io.game.managers.Resources;
 
 public class AnimatedEntity extends Entity {
 	protected Animation<TextureRegion> animation;
+	// clip actual; sin gráficos el handle existe pero no tiene animación (get() == null)
+	protected AnimationHandle clip;
+	// segundos transcurridos desde que empezó la animación actual
 	protected float animationState = 0f;
+	// duración deseada en segundos (por defecto la declarada en el handle)
 	private float animationDuration = 0;
+	// PlayMode de la animación actual resuelto al empezarla
+	private boolean looping = false;
 
 	public void play(Animation<TextureRegion> anim) {
-		if (anim != this.animation) {
-			this.animation = anim;
-			animationState = 0f;
-			animationDuration = anim.getAnimationDuration();
+		if (anim != this.animation || clip != null) {
+			start(null, anim);
+		}
+	}
+	public void play(AnimationHandle handle) {
+		if (handle != clip) {
+			start(handle, handle.get());
 		}
 	}
 	public void play(String name, String basePath) {
@@ -26,36 +36,64 @@ public class AnimatedEntity extends Entity {
 	 */
 	public void forcePlay(Animation<TextureRegion> anim) {
 		if (anim == null) return;
-		this.animation = anim;
-		this.animationState = 0f;
-		this.animationDuration = anim.getAnimationDuration();
+		start(null, anim);
+	}
+	public void forcePlay(AnimationHandle handle) {
+		start(handle, handle.get());
 	}
 	public void forcePlay(String name, String basePath) {
 		Animation<TextureRegion> anim = Resources.getAnimation(name, basePath);
 		forcePlay(anim);
 	}
 
+	private void start(AnimationHandle handle, Animation<TextureRegion> anim) {
+		this.clip = handle;
+		this.animation = anim;
+		this.animationState = 0f;
+		if (handle != null) {
+			// la duración declarada en el handle: igual con o sin gráficos
+			this.animationDuration = handle.getDuration();
+			this.looping = handle.isLooping();
+		} else {
+			this.animationDuration = anim != null ? anim.getAnimationDuration() : 0f;
+			this.looping = anim != null && AnimationHandle.isLooping(anim.getPlayMode());
+		}
+	}
+
 	/**
 	 * Actualizar animación y mover la entidad segun su velocidad
 	 */
 	public void update(float delta) {
 
+        float before = animationState;
+        animationState += delta;
+        // eventos de la pista del clip que el reloj acaba de cruzar
+        if (clip != null && animationDuration > 0) {
+            int events = clip.eventsCrossed(before / animationDuration, animationState / animationDuration);
+            if (events != 0) onAnimationEvents(events);
+        }
         if (animation != null) {
-            animationState += delta * animation.getAnimationDuration() / Math.max(animationDuration, 0.0001f);
             this.frame = getFrame();
         }
 
         super.update(delta);
 	}
 
+	/**
+	 * Llamado desde update() cuando el clip cruza eventos de su pista
+	 * (una vez por evento y reproducción)
+	 * @param events bits de los eventos (AnimationHandle.EVENT_HIT, ...)
+	 */
+	protected void onAnimationEvents(int events) {
+	}
+
 	public TextureRegion getFrame() {
 		if (animation == null) return null;
-		// Usar looping basado en el PlayMode de la animación
-		boolean looping = animation.getPlayMode() == com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP || 
-		                  animation.getPlayMode() == com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_PINGPONG ||
-		                  animation.getPlayMode() == com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_RANDOM ||
-		                  animation.getPlayMode() == com.badlogic.gdx.graphics.g2d.Animation.PlayMode.LOOP_REVERSED;
-		return animation.getKeyFrame(animationState, looping);
+		// el tiempo de la animación se escala para que dure animationDuration
+		float time = animationDuration > 0
+			? animationState * animation.getAnimationDuration() / animationDuration
+			: animationState;
+		return animation.getKeyFrame(time, looping);
 	}
 	
 	public void setAnimationDuration(float animationDuration) {
@@ -64,7 +102,13 @@ public class AnimatedEntity extends Entity {
 	}
 
 	public boolean isAnimationFinished() {
-		return animation.isAnimationFinished(animationState);
+		return animationState >= animationDuration;
+	}
+
+	/** Fracción de la animación actual ya reproducida (0..1, o más si ya terminó) */
+	public float getAnimationProgress() {
+		if (animationDuration <= 0) return 1f;
+		return animationState / animationDuration;
 	}
 	
 	/**
@@ -73,9 +117,7 @@ public class AnimatedEntity extends Entity {
 	 * @return true si la animación ha progresado al menos ese porcentaje
 	 */
 	public boolean isAnimationAtLeast(float progress) {
-		if (animation == null) return false;
-		float totalDuration = animation.getAnimationDuration();
-		return animationState >= (totalDuration * progress);
+		return animationState >= (animationDuration * progress);
 	}
 
 }
@@ -0,0 +1,139 @@
+package io.game.entities;
+
+import io.game.maps.DungeonGraph;
+import io.game.maps.RoomActivation;
+
+/**
+ * Rejilla uniforme de los enemigos (o de los cadáveres) de un EnemyStore,
+ * para buscar por zona sin recorrer el almacén entero.
+ *
+ * Las celdas se reparten por hash en una tabla de potencia de dos y cada
+ * entrada guarda su celda: una celda ajena que caiga en el mismo hueco se
+ * descarta comparando la celda, nunca se cuenta dos veces.
+ *
+ * Los build*() ordenan los índices por hueco (counting sort, estable) en
+ * arrays planos que solo crecen, así que reconstruirla cada paso no reserva
+ * memoria. La separación entre enemigos usa celdas del tamaño del radio de
+ * colisión (los que se tocan están en la misma celda o en una vecina); el
+ * dibujo usa celdas de habitación para recorrer solo las que se ven.
+ */
+public class EnemyGrid {
+
+    private float cellSize = 1f;
+    private int mask;
+    private int size;
+    // start[b] .. start[b + 1]: posiciones de entries con las entradas del hueco b
+    private int[] start = new int[1];
+    private int[] cursor = new int[0];
+    private int[] entries = new int[0];
+    // celda de cada entrada; bucket -1 si no está en la rejilla
+    private int[] cellX = new int[0], cellY = new int[0];
+    private int[] bucket = new int[0];
+
+    /** Reparte en la rejilla los enemigos vivos que no están congelados */
+    public void build(EnemyStore e, float cellSize) {
+        begin(e.count, cellSize);
+        for (int i = 0; i < e.count; i++) {
+            if (e.isDead(i) || e.activity[i] == RoomActivation.FROZEN) continue;
+            add(i, e.x[i], e.y[i]);
+        }
+        finish();
+    }
+
+    /** Reparte todos los enemigos del almacén, vivos o muriendo, por su esquina inferior izquierda */
+    public void buildAll(EnemyStore e, float cellSize) {
+        begin(e.count, cellSize);
+        for (int i = 0; i < e.count; i++) add(i, e.x[i], e.y[i]);
+        finish();
+    }
+
+    /** Reparte los cadáveres retirados (índices de corpseX/corpseY) */
+    public void buildCorpses(EnemyStore e, float cellSize) {
+        begin(e.corpseCount, cellSize);
+        for (int c = 0; c < e.corpseCount; c++) add(c, e.corpseX[c], e.corpseY[c]);
+        finish();
+    }
+
+    private void begin(int count, float cellSize) {
+        this.cellSize = cellSize;
+        this.size = count;
+        if (entries.length < count) {
+            int capacity = Math.max(count, entries.length * 2);
+            entries = new int[capacity];
+            cellX = new int[capacity];
+            cellY = new int[capacity];
+            bucket = new int[capacity];
+        }
+        int tableSize = 16;
+        while (tableSize < count * 2) tableSize <<= 1;
+        if (cursor.length < tableSize) {
+            cursor = new int[tableSize];
+            start = new int[tableSize + 1];
+        }
+        mask = tableSize - 1;
+        for (int b = 0; b <= tableSize; b++) start[b] = 0;
+        for (int i = 0; i < count; i++) bucket[i] = -1;
+    }
+
+    private void add(int i, float x, float y) {
+        int cx = DungeonGraph.cellOf(x, cellSize);
+        int cy = DungeonGraph.cellOf(y, cellSize);
+        int b = bucketOf(cx, cy);
+        cellX[i] = cx;
+        cellY[i] = cy;
+        bucket[i] = b;
+        start[b + 1]++;
+    }
+
+    private void finish() {
+        for (int b = 0; b <= mask; b++) {
+            start[b + 1] += start[b];
+            cursor[b] = start[b];
+        }
+        for (int i = 0; i < size; i++) {
+            int b = bucket[i];
+            if (b >= 0) entries[cursor[b]++] = i;
+        }
+    }
+
+    private int bucketOf(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & mask;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /** Si la entrada i entró en la rejilla en el último build*() */
+    public boolean contains(int i) {
+        return i < size && bucket[i] >= 0;
+    }
+
+    public int cellX(int i) {
+        return cellX[i];
+    }
+
+    public int cellY(int i) {
+        return cellY[i];
+    }
+
+    /** Hueco de la tabla donde caen las entradas de la celda (cx, cy) */
+    public int bucket(int cx, int cy) {
+        return bucketOf(cx, cy);
+    }
+
+    /** Primera posición de entries() del hueco b */
+    public int start(int b) {
+        return start[b];
+    }
+
+    /** Posición siguiente a la última de entries() del hueco b */
+    public int end(int b) {
+        return start[b + 1];
+    }
+
+    /** Índice guardado en la posición k */
+    public int entry(int k) {
+        return entries[k];
+    }
+}
@@ -0,0 +1,245 @@
+package io.game.entities;
+
+import java.util.Arrays;
+
+/**
+ * Almacén de enemigos en formato "struct of arrays": cada componente
+ * (posición, movimiento, salud, combate, IA, animación) es un array primitivo
+ * y un enemigo es simplemente un índice en [0, count).
+ *
+ * Los sistemas (IA, movimiento, colisiones, dibujo) recorren estos arrays
+ * de forma contigua en vez de saltar entre objetos, lo que permite niveles
+ * con miles de enemigos. Los arrays crecen al doble cuando se llenan y nunca
+ * encogen, así que al limpiar y volver a generar no se reserva memoria.
+ *
+ * La posición tiene doble buffer: durante la actualización se lee (x, y)
+ * del tick anterior y se escribe (nextX, nextY); swapPositions() los intercambia.
+ * Entre dos actualizaciones (nextX, nextY) guarda la posición del tick anterior,
+ * que es la que usa el dibujo para interpolar.
+ *
+ * Los muertos cuya animación de muerte terminó se retiran con retire(): pasan
+ * a la lista de cadáveres (solo posición y orientación, para dibujarlos) y su
+ * hueco lo ocupa el último enemigo, así [0, count) solo contiene enemigos que
+ * todavía hay que simular.
+ */
+public class EnemyStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    public int count = 0;
+
+    // tamaño del sprite, común a todos los enemigos del almacén
+    public float width, height;
+
+    // transformación
+    public float[] x, y;
+    public float[] nextX, nextY;
+    public float[] vx, vy;
+    public boolean[] flipLeft;
+
+    // salud y combate
+    public int[] health;
+    public float[] cooldown;
+    public boolean[] attacking;
+    public boolean[] hitPending; // el ataque llegó al impacto y aún no se ha resuelto
+
+    // IA
+    public byte[] state;
+    public float[] thinkTimer;
+    public float[] wanderTimer;
+    public float[] wanderX, wanderY;
+    public long[] rng; // estado del generador aleatorio propio de cada enemigo
+
+    // animación: índice de animación, segundos transcurridos y duración deseada (s)
+    public int[] anim;
+    public float[] animTime;
+    public float[] animDuration;
+    // desfase (en 1/256 de ciclo) sobre el reloj compartido de las animaciones que se repiten
+    public byte[] animPhase;
+
+    // nivel de simulación (RoomActivation) y tiempo acumulado sin simular
+    public byte[] activity;
+    public float[] pendingDt;
+
+    // cadáveres retirados: [0, corpseCount)
+    public int corpseCount = 0;
+    public float[] corpseX, corpseY;
+    public boolean[] corpseFlip;
+
+    public EnemyStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /** Vacía el almacén conservando la capacidad reservada */
+    public void clear() {
+        count = 0;
+        corpseCount = 0;
+    }
+
+    public void setSize(float width, float height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Añade un enemigo en (x, y) con todos sus componentes a cero
+     * @return índice del nuevo enemigo
+     */
+    public int add(float px, float py) {
+        if (count == x.length) allocate(count * 2);
+
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        nextX[i] = px;
+        nextY[i] = py;
+        vx[i] = 0;
+        vy[i] = 0;
+        flipLeft[i] = false;
+        health[i] = 0;
+        cooldown[i] = 0;
+        attacking[i] = false;
+        hitPending[i] = false;
+        state[i] = 0;
+        thinkTimer[i] = 0;
+        wanderTimer[i] = 0;
+        wanderX[i] = 0;
+        wanderY[i] = 0;
+        rng[i] = 0;
+        anim[i] = -1;
+        animTime[i] = 0;
+        animDuration[i] = 0;
+        animPhase[i] = 0;
+        activity[i] = 0;
+        pendingDt[i] = 0;
+        return i;
+    }
+
+    /**
+     * Retira el enemigo i: lo guarda como cadáver y mueve el último enemigo a su hueco.
+     * Cambia los índices, así que no se puede llamar durante la actualización en paralelo.
+     */
+    public void retire(int i) {
+        if (corpseCount == corpseX.length) {
+            int capacity = corpseX.length * 2;
+            corpseX = Arrays.copyOf(corpseX, capacity);
+            corpseY = Arrays.copyOf(corpseY, capacity);
+            corpseFlip = Arrays.copyOf(corpseFlip, capacity);
+        }
+        corpseX[corpseCount] = x[i];
+        corpseY[corpseCount] = y[i];
+        corpseFlip[corpseCount] = flipLeft[i];
+        corpseCount++;
+
+        int last = --count;
+        if (i != last) move(last, i);
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        nextX[to] = nextX[from];
+        nextY[to] = nextY[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        flipLeft[to] = flipLeft[from];
+        health[to] = health[from];
+        cooldown[to] = cooldown[from];
+        attacking[to] = attacking[from];
+        hitPending[to] = hitPending[from];
+        state[to] = state[from];
+        thinkTimer[to] = thinkTimer[from];
+        wanderTimer[to] = wanderTimer[from];
+        wanderX[to] = wanderX[from];
+        wanderY[to] = wanderY[from];
+        rng[to] = rng[from];
+        anim[to] = anim[from];
+        animTime[to] = animTime[from];
+        animDuration[to] = animDuration[from];
+        animPhase[to] = animPhase[from];
+        activity[to] = activity[from];
+        pendingDt[to] = pendingDt[from];
+    }
+
+    /** Publica las posiciones escritas en el tick como las actuales */
+    public void swapPositions() {
+        float[] t = x;
+        x = nextX;
+        nextX = t;
+        t = y;
+        y = nextY;
+        nextY = t;
+    }
+
+    /** Posición para dibujar: interpola entre el tick anterior y el actual */
+    public float renderX(int i, float alpha) {
+        return nextX[i] + (x[i] - nextX[i]) * alpha;
+    }
+
+    public float renderY(int i, float alpha) {
+        return nextY[i] + (y[i] - nextY[i]) * alpha;
+    }
+
+    public boolean isDead(int i) {
+        return health[i] <= 0;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    private void allocate(int capacity) {
+        if (x == null) {
+            x = new float[capacity];
+            y = new float[capacity];
+            nextX = new float[capacity];
+            nextY = new float[capacity];
+            vx = new float[capacity];
+            vy = new float[capacity];
+            flipLeft = new boolean[capacity];
+            health = new int[capacity];
+            cooldown = new float[capacity];
+            attacking = new boolean[capacity];
+            hitPending = new boolean[capacity];
+            state = new byte[capacity];
+            thinkTimer = new float[capacity];
+            wanderTimer = new float[capacity];
+            wanderX = new float[capacity];
+            wanderY = new float[capacity];
+            rng = new long[capacity];
+            anim = new int[capacity];
+            animTime = new float[capacity];
+            animDuration = new float[capacity];
+            animPhase = new byte[capacity];
+            activity = new byte[capacity];
+            pendingDt = new float[capacity];
+            corpseX = new float[capacity];
+            corpseY = new float[capacity];
+            corpseFlip = new boolean[capacity];
+            return;
+        }
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        nextX = Arrays.copyOf(nextX, capacity);
+        nextY = Arrays.copyOf(nextY, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        flipLeft = Arrays.copyOf(flipLeft, capacity);
+        health = Arrays.copyOf(health, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        attacking = Arrays.copyOf(attacking, capacity);
+        hitPending = Arrays.copyOf(hitPending, capacity);
+        state = Arrays.copyOf(state, capacity);
+        thinkTimer = Arrays.copyOf(thinkTimer, capacity);
+        wanderTimer = Arrays.copyOf(wanderTimer, capacity);
+        wanderX = Arrays.copyOf(wanderX, capacity);
+        wanderY = Arrays.copyOf(wanderY, capacity);
+        rng = Arrays.copyOf(rng, capacity);
+        anim = Arrays.copyOf(anim, capacity);
+        animTime = Arrays.copyOf(animTime, capacity);
+        animDuration = Arrays.copyOf(animDuration, capacity);
+        animPhase = Arrays.copyOf(animPhase, capacity);
+        activity = Arrays.copyOf(activity, capacity);
+        pendingDt = Arrays.copyOf(pendingDt, capacity);
+    }
+}
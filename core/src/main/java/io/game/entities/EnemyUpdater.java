@@ -0,0 +1,189 @@
+package io.game.entities;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.game.entities.characters.Orc;
+import io.game.maps.DungeonCollision;
+import io.game.maps.DungeonGraph;
+import io.game.maps.RoomActivation;
+
+/**
+ * Fase de actualización de enemigos: IA, movimiento y colisión con paredes.
+ *
+ * Cada enemigo solo lee el estado del tick anterior (su posición actual, la
+ * del jugador y la mazmorra) y solo escribe en su propio índice y en el buffer
+ * de posiciones siguiente, así que el resultado no depende del número de hilos.
+ * Con muchos enemigos el rango se reparte en trozos sobre un ForkJoinPool
+ * (work stealing); con pocos se actualiza en el hilo de render.
+ */
+public class EnemyUpdater {
+
+    /** Enemigos por trozo de trabajo */
+    public static final int CHUNK_SIZE = 256;
+    /** Por debajo de este número no compensa repartir el trabajo */
+    public static final int PARALLEL_THRESHOLD = 1024;
+
+    // las habitaciones en nivel REDUCED se simulan 1 de cada N frames
+    private static final int REDUCED_INTERVAL = 4;
+    private static final float MAX_PENDING_DT = 0.25f;
+
+    private final EnemyStore store;
+    private final DungeonCollision collision;
+    private final RoomActivation activation;
+    private final float tileW, tileH;
+    private final ForkJoinPool pool;
+
+    // trozos reutilizables: repartir el trabajo no reserva memoria en cada frame
+    private final RootTask root = new RootTask();
+    private ChunkTask[] chunks = new ChunkTask[0];
+
+    // parámetros del tick actual (solo lectura para los workers)
+    private float delta;
+    private float playerX, playerY;
+    private int frame = 0;
+
+    public EnemyUpdater(EnemyStore store, DungeonCollision collision, RoomActivation activation,
+                        float tileW, float tileH) {
+        this(store, collision, activation, tileW, tileH, Runtime.getRuntime().availableProcessors());
+    }
+
+    public EnemyUpdater(EnemyStore store, DungeonCollision collision, RoomActivation activation,
+                        float tileW, float tileH, int threads) {
+        this.store = store;
+        this.collision = collision;
+        this.activation = activation;
+        this.tileW = tileW;
+        this.tileH = tileH;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Actualiza todos los enemigos un tick y publica sus nuevas posiciones
+     */
+    public void update(float delta, float playerX, float playerY) {
+        this.delta = delta;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        frame++;
+
+        int n = store.count;
+        if (pool == null || n < PARALLEL_THRESHOLD) {
+            updateRange(0, n);
+        } else {
+            prepareChunks(n);
+            root.reinitialize();
+            pool.invoke(root);
+        }
+
+        store.swapPositions();
+    }
+
+    private void updateRange(int from, int to) {
+        EnemyStore e = store;
+        for (int i = from; i < to; i++) {
+            // por defecto la posición no cambia
+            e.nextX[i] = e.x[i];
+            e.nextY[i] = e.y[i];
+
+            // Cadáveres con la animación de muerte terminada ya no cambian
+            if (Orc.isSettled(e, i)) continue;
+
+            // Nivel de simulación según la distancia (en saltos) a la habitación del jugador
+            byte activity = activation.levelAt(
+                DungeonGraph.cellOf(e.x[i] + e.width * 0.5f, tileW),
+                DungeonGraph.cellOf(e.y[i] + e.height * 0.5f, tileH));
+            e.activity[i] = activity;
+
+            float dt;
+            if (activity == RoomActivation.ACTIVE) {
+                dt = delta;
+                e.pendingDt[i] = 0;
+            } else if (activity == RoomActivation.REDUCED) {
+                // Acumular tiempo y simular con él 1 de cada REDUCED_INTERVAL frames
+                // (escalonado por índice para repartir el coste)
+                e.pendingDt[i] = Math.min(e.pendingDt[i] + delta, MAX_PENDING_DT);
+                if ((frame + i) % REDUCED_INTERVAL != 0) continue;
+                dt = e.pendingDt[i];
+                e.pendingDt[i] = 0;
+            } else {
+                // Congelado: no acumula tiempo, al reactivarse sigue donde estaba
+                e.pendingDt[i] = 0;
+                continue;
+            }
+
+            // Si el enemigo está muerto, solo actualizar su animación
+            if (e.isDead(i)) {
+                Orc.update(e, i, dt);
+                continue;
+            }
+
+            // Actualizar IA y movimiento
+            Orc.updateAI(e, i, dt, playerX, playerY);
+            Orc.update(e, i, dt);
+
+            // Si no hay movimiento, no verificar colisión
+            if (e.vx[i] == 0 && e.vy[i] == 0) {
+                continue;
+            }
+
+            // Verificar colisión con paredes
+            if (collision.collides(e.nextX[i], e.nextY[i], e.width, e.height)) {
+                // Colisión detectada, intentar movimiento en X solo
+                e.nextX[i] = e.x[i] + e.vx[i] * dt;
+                e.nextY[i] = e.y[i];
+
+                if (collision.collides(e.nextX[i], e.nextY[i], e.width, e.height)) {
+                    // Aún hay colisión, intentar solo Y
+                    e.nextX[i] = e.x[i];
+                    e.nextY[i] = e.y[i] + e.vy[i] * dt;
+
+                    if (collision.collides(e.nextX[i], e.nextY[i], e.width, e.height)) {
+                        // Colisión en ambos ejes, quedarse donde estaba
+                        e.nextY[i] = e.y[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /** Ajusta los trozos a n enemigos; solo se recrea el array si cambia el número de trozos */
+    private void prepareChunks(int n) {
+        int count = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks.length != count) {
+            chunks = new ChunkTask[count];
+            for (int c = 0; c < count; c++) chunks[c] = new ChunkTask();
+        }
+        for (int c = 0; c < count; c++) {
+            ChunkTask t = chunks[c];
+            t.reinitialize();
+            t.from = c * CHUNK_SIZE;
+            t.to = Math.min(n, t.from + CHUNK_SIZE);
+        }
+    }
+
+    public void dispose() {
+        if (pool != null) pool.shutdown();
+    }
+
+    /**
+     * Lanza todos los trozos; invokeAll ejecuta uno en este hilo y deja el
+     * resto en la cola, de donde los hilos libres los roban
+     */
+    private final class RootTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    }
+
+    /** Rango [from, to) de enemigos, como mucho CHUNK_SIZE */
+    private final class ChunkTask extends RecursiveAction {
+        int from, to;
+
+        @Override
+        protected void compute() {
+            updateRange(from, to);
+        }
+    }
+}
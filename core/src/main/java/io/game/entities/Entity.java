@@ -4,8 +4,12 @@ import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
+import io.game.managers.Resources;
+
 public class Entity {
 	final public Vector2 position = new Vector2();
+	// posición al empezar el último paso de simulación (para interpolar el dibujo)
+	final public Vector2 previousPosition = new Vector2();
 	final public Vector2 movement = new Vector2();
 	final public Vector2 size = new Vector2();
 	final public Vector2 anchor = new Vector2();
@@ -26,24 +30,49 @@ public class Entity {
 		position.mulAdd(movement, delta);
 	}
 
+	/**
+	 * Guardar la posición actual como la del paso anterior
+	 * (al empezar cada paso de simulación o tras teletransportar la entidad)
+	 */
+	public void savePreviousPosition() {
+		previousPosition.set(position);
+	}
+
+	/** Posición interpolada entre el paso anterior y el actual */
+	public float renderX(float alpha) {
+		return previousPosition.x + (position.x - previousPosition.x) * alpha;
+	}
+
+	public float renderY(float alpha) {
+		return previousPosition.y + (position.y - previousPosition.y) * alpha;
+	}
+
 	public void render(Batch batch) {
+		render(batch, 1f);
+	}
+
+	/**
+	 * Dibujar la entidad interpolando su posición
+	 * @param alpha fracción del paso fijo transcurrida desde la última simulación (0..1)
+	 */
+	public void render(Batch batch, float alpha) {
 		if(frame==null) return;
+		float x = renderX(alpha);
+		float y = renderY(alpha);
 		if (flipLeft) {
-			batch.draw(
-				frame, 
-				position.x + size.x, position.y, 
+			Resources.draw(
+				batch, frame, 
+				x + size.x, y, 
 				anchor.x, anchor.y, 
 				- size.x, size.y, 
-				1f, 1f, 
 				rotation
 			);
 		} else {
-			batch.draw(
-				frame, 
-				position.x, position.y, 
+			Resources.draw(
+				batch, frame, 
+				x, y, 
 				anchor.x, anchor.y, 
 				size.x, size.y, 
-				1f, 1f, 
 				rotation
 			);
 		}
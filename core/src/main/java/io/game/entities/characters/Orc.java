@@ -1,32 +1,77 @@
 package io.game.entities.characters;
 
+import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
-import io.game.components.CombatComponent;
-import io.game.components.HealthComponent;
+import io.game.entities.EnemyStore;
+import io.game.managers.AnimationHandle;
 import io.game.managers.Resources;
+import io.game.world.Rng;
 
-public class Orc extends Character {
+/**
+ * Orco enemigo. Sus datos viven en un {@link EnemyStore}; esta clase define
+ * las constantes del orco y los sistemas que trabajan sobre un índice del
+ * almacén: IA, movimiento, combate y dibujo.
+ */
+public final class Orc {
 
 	public static final String BASE_PATH = "graphics/sprites/characters/orc";
 
-	private Vector2 targetPosition = new Vector2();
-	private float detectionRange = 300f; // rango de detección del jugador
-	private float attackRange = 50f; // rango para atacar
-	private float wanderTimer = 0f;
-	private float wanderInterval = 2f; // cambiar dirección cada 2 segundos
-	private Vector2 wanderDirection = new Vector2();
-	
-	private enum State {
-		IDLE,
-		WANDER,
-		CHASE,
-		ATTACK
-	}
-	
-	private State currentState = State.IDLE;
-	private boolean damageApplied = false; // Control para aplicar daño solo una vez por ataque
+	public static final int MAX_HEALTH = 50;
+	public static final int DAMAGE = 5;
+	public static final float ATTACK_COOLDOWN = 1.0f;
+	public static final float ATTACK_RANGE = 50f; // rango para atacar
+	public static final float MAX_SPEED = 200; // más lento que el jugador
+	private static final float DETECTION_RANGE = 300f; // rango de detección del jugador
+	private static final float WANDER_INTERVAL = 2f; // cambiar dirección cada 2 segundos
+	private static final float GOLDEN_RATIO = 0.618034f;
+
+	// tiempo entre decisiones de la IA (10 Hz por defecto)
+	private static float thinkInterval = 0.1f;
+
+	// Estados de la IA (EnemyStore.state)
+	private static final byte IDLE = 0;
+	private static final byte WANDER = 1;
+	private static final byte CHASE = 2;
+	private static final byte ATTACK = 3;
+
+	// Animaciones (EnemyStore.anim)
+	public static final int ANIM_IDLE = 0;
+	public static final int ANIM_WALK = 1;
+	public static final int ANIM_HURT = 2;
+	public static final int ANIM_DEATH = 3;
+	public static final int ANIM_ATTACK = 4;
+	private static final int ANIM_COUNT = 5;
+
+	// los handles, su duración y sus pistas de eventos existen siempre; las
+	// animaciones se resuelven en loadTextures(). Duración = frames * segundos por frame
+	private static final AnimationHandle[] handles = {
+			Resources.animationHandle("idle", BASE_PATH).duration(0.6f),
+			Resources.animationHandle("walk", BASE_PATH).duration(0.8f),
+			Resources.animationHandle("hurt", BASE_PATH).duration(0.4f),
+			Resources.animationHandle("death", BASE_PATH).duration(0.6f),
+			Resources.animationHandle("attack01", BASE_PATH).duration(0.6f)
+					.addEvent(0.7f, AnimationHandle.EVENT_HIT),
+	};
+	// sin gráficos (loadTextures() no llamado) las animaciones son null; la lógica
+	// solo depende de animTime y animDuration, en segundos, y de las duraciones declaradas
+	@SuppressWarnings("unchecked")
+	private static final Animation<TextureRegion>[] animations = new Animation[ANIM_COUNT];
+	private static final boolean[] looping = new boolean[ANIM_COUNT];
+	private static final TextureRegion[][] keyFrames = new TextureRegion[ANIM_COUNT][];
+
+	// Relojes compartidos: las animaciones que se repiten (idle, walk) siguen un
+	// reloj global y cada orco solo añade su desfase, así el índice de frame se
+	// calcula una vez por animación y frame en lugar de una vez por orco
+	private static boolean sharedClocks = true;
+	private static final int[] sharedFrame = new int[ANIM_COUNT];
+	// último frame de la animación de muerte, para dibujar los cadáveres retirados
+	private static TextureRegion corpseFrame;
+
+	private Orc() {
+	}
 
 	/**
 	 * Carga inicial de animaciones (llamar una vez en el setup del juego)
@@ -39,168 +84,356 @@ public class Orc extends Character {
 		Resources.loadAnimation("attack01", BASE_PATH, 100, 100, 0.1f, 35, 35, PlayMode.NORMAL);
 
 		Resources.finish();
+		resolveAnimations();
+	}
+
+	/**
+	 * Copia las animaciones de los handles a los arrays por índice que usa el
+	 * dibujo. Sin animaciones (sin gráficos) los deja vacíos; la simulación no
+	 * los lee, solo las duraciones declaradas en los handles.
+	 */
+	public static void resolveAnimations() {
+		for (int a = 0; a < ANIM_COUNT; a++) {
+			animations[a] = handles[a].get();
+			looping[a] = animations[a] != null && handles[a].isLooping();
+			keyFrames[a] = animations[a] != null ? animations[a].getKeyFrames() : null;
+		}
+
+		TextureRegion[] deathFrames = keyFrames[ANIM_DEATH];
+		corpseFrame = deathFrames != null ? deathFrames[deathFrames.length - 1] : null;
+	}
+
+	/**
+	 * Crea un orco en el almacén
+	 * @param seed semilla de sus decisiones aleatorias (misma semilla, mismas decisiones)
+	 * @return índice del orco
+	 */
+	public static int spawn(EnemyStore s, float x, float y, long seed) {
+		int i = s.add(x, y);
+		s.health[i] = MAX_HEALTH;
+		s.rng[i] = seed;
+		// repartir la primera decisión a lo largo del intervalo para que
+		// en cada frame solo piense una fracción de los orcos
+		s.thinkTimer[i] = ((i * GOLDEN_RATIO) % 1f) * thinkInterval;
+		// lo mismo con el desfase de animación, para que la multitud no se mueva al unísono
+		s.animPhase[i] = (byte) (((i * GOLDEN_RATIO) % 1f) * 256);
+		play(s, i, ANIM_IDLE);
+		return i;
+	}
+
+	/**
+	 * Frecuencia (en Hz) a la que los orcos toman decisiones.
+	 * El movimiento se sigue integrando en cada frame.
+	 */
+	public static void setThinkRate(float hz) {
+		thinkInterval = 1f / Math.max(hz, 0.001f);
+	}
+
+	/**
+	 * Activa o desactiva los relojes compartidos de las animaciones que se repiten
+	 * (desactivados, cada orco calcula su frame con su propio animTime)
+	 */
+	public static void setSharedClocks(boolean enabled) {
+		sharedClocks = enabled;
+	}
+
+	/**
+	 * Avanza los relojes compartidos (llamar una vez por frame, antes de dibujar)
+	 * @param time tiempo de juego en segundos
+	 */
+	public static void updateClocks(float time) {
+		if (!sharedClocks) return;
+		for (int a = 0; a < ANIM_COUNT; a++) {
+			if (looping[a]) sharedFrame[a] = animations[a].getKeyFrameIndex(time);
+		}
 	}
 
-	public Orc(float x, float y) {
-		super();
-		size.set(100, 100);
-		position.set(x, y);
-		maxSpeed = 200; // más lento que el jugador
-		
-		// Componentes de combate y salud
-		combat = new CombatComponent(5, 1.0f, attackRange);
-		health = new HealthComponent(50);
+	/**
+	 * Cuenta atrás hasta la siguiente decisión de la IA; solo llama a think()
+	 * cuando vence, y mientras tanto el orco conserva su movimiento actual
+	 */
+	public static void updateAI(EnemyStore s, int i, float dt, float playerX, float playerY) {
+		s.thinkTimer[i] -= dt;
+		if (s.thinkTimer[i] > 0) return;
 
-		play("idle", BASE_PATH);
+		s.thinkTimer[i] += thinkInterval;
+		if (s.thinkTimer[i] <= 0) {
+			// tras mucho tiempo sin simular no se recuperan las decisiones perdidas
+			s.thinkTimer[i] = thinkInterval;
+		}
+		think(s, i, thinkInterval, playerX, playerY);
 	}
 
 	/**
 	 * IA del orco: persigue al jugador si está cerca, deambula aleatoriamente,
 	 * y ataca cuando está en rango
 	 */
-	public void updateAI(float dt, Vector2 playerPosition) {
-		if (health.isDead()) {
-			movement.set(0, 0);
-			if (!this.animation.equals(Resources.getAnimation("death", BASE_PATH))) {
-				forcePlay("death", BASE_PATH);
+	private static void think(EnemyStore s, int i, float dt, float playerX, float playerY) {
+		if (s.isDead(i)) {
+			s.vx[i] = 0;
+			s.vy[i] = 0;
+			if (s.anim[i] != ANIM_DEATH) {
+				forcePlay(s, i, ANIM_DEATH);
 			}
 			return;
 		}
-		
+
 		// Si está reproduciendo la animación de hurt, no puede moverse
-		if (this.animation.equals(Resources.getAnimation("hurt", BASE_PATH))) {
-			movement.set(0, 0);
-			if (isAnimationFinished()) {
-				play("idle", BASE_PATH);
+		if (s.anim[i] == ANIM_HURT) {
+			s.vx[i] = 0;
+			s.vy[i] = 0;
+			if (isAnimationFinished(s, i)) {
+				play(s, i, ANIM_IDLE);
 			}
 			return;
 		}
-		
-		float distanceToPlayer = position.dst(playerPosition);
-		
+
+		float dx = playerX - s.x[i];
+		float dy = playerY - s.y[i];
+		float distanceToPlayer = (float) Math.sqrt(dx * dx + dy * dy);
+
 		// Determinar estado según distancia
-		if (distanceToPlayer <= attackRange) {
-			currentState = State.ATTACK;
-		} else if (distanceToPlayer <= detectionRange) {
-			currentState = State.CHASE;
+		if (distanceToPlayer <= ATTACK_RANGE) {
+			s.state[i] = ATTACK;
+		} else if (distanceToPlayer <= DETECTION_RANGE) {
+			s.state[i] = CHASE;
 		} else {
 			// Deambular o estar idle
-			wanderTimer -= dt;
-			if (wanderTimer <= 0) {
-				wanderTimer = wanderInterval;
+			s.wanderTimer[i] -= dt;
+			if (s.wanderTimer[i] <= 0) {
+				s.wanderTimer[i] = WANDER_INTERVAL;
 				// 50% de probabilidad de moverse o quedarse quieto
-				if (Math.random() < 0.5f) {
-					currentState = State.WANDER;
+				if (random(s, i) < 0.5f) {
+					s.state[i] = WANDER;
 					// Dirección aleatoria
-					wanderDirection.set(
-						(float)(Math.random() * 2 - 1),
-						(float)(Math.random() * 2 - 1)
-					).nor();
+					float wx = random(s, i) * 2 - 1;
+					float wy = random(s, i) * 2 - 1;
+					float len = (float) Math.sqrt(wx * wx + wy * wy);
+					if (len != 0) {
+						wx /= len;
+						wy /= len;
+					}
+					s.wanderX[i] = wx;
+					s.wanderY[i] = wy;
 				} else {
-					currentState = State.IDLE;
+					s.state[i] = IDLE;
 				}
 			}
 		}
-		
+
 		// Ejecutar comportamiento según estado
-		switch (currentState) {
+		switch (s.state[i]) {
 			case IDLE:
-				movement.set(0, 0);
-				if (!combat.isAttacking()) {
-					play("idle", BASE_PATH);
+				s.vx[i] = 0;
+				s.vy[i] = 0;
+				if (!s.attacking[i]) {
+					play(s, i, ANIM_IDLE);
 				}
 				break;
-				
+
 			case WANDER:
-				movement.set(wanderDirection).scl(maxSpeed * 0.5f);
-				if (!combat.isAttacking()) {
-					play("walk", BASE_PATH);
+				s.vx[i] = s.wanderX[i] * MAX_SPEED * 0.5f;
+				s.vy[i] = s.wanderY[i] * MAX_SPEED * 0.5f;
+				if (!s.attacking[i]) {
+					play(s, i, ANIM_WALK);
 				}
 				break;
-				
+
 			case CHASE:
 				// Perseguir al jugador
-				targetPosition.set(playerPosition);
-				Vector2 direction = targetPosition.sub(position).nor();
-				movement.set(direction).scl(maxSpeed);
-				
-				if (!combat.isAttacking()) {
-					play("walk", BASE_PATH);
+				if (distanceToPlayer != 0) {
+					s.vx[i] = dx / distanceToPlayer * MAX_SPEED;
+					s.vy[i] = dy / distanceToPlayer * MAX_SPEED;
+				} else {
+					s.vx[i] = 0;
+					s.vy[i] = 0;
+				}
+
+				if (!s.attacking[i]) {
+					play(s, i, ANIM_WALK);
 				}
 				break;
-				
+
 			case ATTACK:
 				// Detenerse y atacar
-				movement.set(0, 0);
-				
+				s.vx[i] = 0;
+				s.vy[i] = 0;
+
 				// Intentar atacar
-				if (combat.tryAttack()) {
-					play("attack01", BASE_PATH);
-					this.setAnimationDuration(combat.getCooldown());
-					damageApplied = false; // Resetear para el nuevo ataque
-				} else if (this.animation.equals(Resources.getAnimation("attack01", BASE_PATH)) && isAnimationFinished()) {
+				if (tryAttack(s, i)) {
+					// forcePlay: un ataque encadenado reinicia la animación y su evento de impacto
+					forcePlay(s, i, ANIM_ATTACK);
+					s.animDuration[i] = ATTACK_COOLDOWN;
+				} else if (s.anim[i] == ANIM_ATTACK && isAnimationFinished(s, i)) {
 					// Si la animación de ataque terminó, volver a idle
-					play("idle", BASE_PATH);
+					play(s, i, ANIM_IDLE);
 				}
-				
+
 				// Orientarse hacia el jugador
-				if (playerPosition.x < position.x) {
-					flipLeft = true;
-				} else {
-					flipLeft = false;
-				}
+				s.flipLeft[i] = playerX < s.x[i];
 				break;
 		}
 	}
 
-	@Override
-	public void update(float dt) {
-		super.update(dt);
-	}
-	
 	/**
-	 * Verifica si el orco puede atacar al jugador (está en rango y la animación de ataque llegó al punto de impacto)
+	 * - Girar a la izquierda o derecha segun movimiento
+	 * - Normalizar el movimiento a la velocidad maxima
+	 * - Actualizar cooldown de ataque y animación, y mover segun su movimiento
+	 *   (lee la posición actual y escribe la siguiente: nextX, nextY)
 	 */
-	public boolean canDamagePlayer(Vector2 playerPosition) {
-		// Solo aplicar daño si no se ha aplicado ya en este ataque
-		if (damageApplied) return false;
-		
-		if (!combat.isAttacking()) {
-			return false;
+	public static void update(EnemyStore s, int i, float dt) {
+		float vx = s.vx[i];
+		float vy = s.vy[i];
+		if (vx > 0) {
+			s.flipLeft[i] = false;
+		} else if (vx < 0) {
+			s.flipLeft[i] = true;
 		}
-		
-		// Solo aplicar daño si estamos reproduciendo la animación de ataque (no idle)
-		if (!this.animation.equals(Resources.getAnimation("attack01", BASE_PATH))) {
-			return false;
+
+		if (vx != 0 || vy != 0) {
+			float scale = MAX_SPEED / (float) Math.sqrt(vx * vx + vy * vy);
+			vx *= scale;
+			vy *= scale;
+			s.vx[i] = vx;
+			s.vy[i] = vy;
 		}
-		
-		// Verificar que la animación esté en una ventana específica (70%-80%) para aplicar el daño
-		// Esto evita aplicar daño múltiples veces
-		float progress = animationState / animation.getAnimationDuration();
-		if (progress < 0.7f || progress > 0.8f) return false;
-		
-		float distance = position.dst(playerPosition);
-		if (distance <= combat.getAttackRange()) {
-			damageApplied = true; // Marcar que el daño fue aplicado
-			return true;
+
+		// combate
+		if (s.cooldown[i] > 0)
+			s.cooldown[i] -= dt;
+		else s.attacking[i] = false;
+
+		// animación (segundos desde que empezó) y eventos de su pista cruzados en este paso
+		float before = s.animTime[i];
+		float after = before + dt;
+		s.animTime[i] = after;
+		float duration = s.animDuration[i];
+		if (duration > 0) {
+			int events = handles[s.anim[i]].eventsCrossed(before / duration, after / duration);
+			if ((events & AnimationHandle.EVENT_HIT) != 0) s.hitPending[i] = true;
 		}
-		
-		return false;
+
+		// movimiento
+		s.nextX[i] = s.x[i] + vx * dt;
+		s.nextY[i] = s.y[i] + vy * dt;
 	}
-	
+
+	/**
+	 * Consume el impacto pendiente del ataque del orco (el evento "hit" de la animación)
+	 * y verifica que el jugador siga a su alcance
+	 */
+	public static boolean consumeHit(EnemyStore s, int i, float playerX, float playerY) {
+		if (!s.hitPending[i]) return false;
+		s.hitPending[i] = false;
+
+		float dx = playerX - s.x[i];
+		float dy = playerY - s.y[i];
+		return dx * dx + dy * dy <= ATTACK_RANGE * ATTACK_RANGE;
+	}
+
 	/**
 	 * Recibir daño
 	 */
-	public void takeDamage(int damage) {
-		if (health.isDead()) return;
-		
-		health.damage(damage);
-		if (!health.isDead()) {
-			play("hurt", BASE_PATH);
-			this.setAnimationDuration(0.3f);
+	public static void takeDamage(EnemyStore s, int i, int damage) {
+		if (s.isDead(i)) return;
+
+		s.health[i] = Math.max(0, s.health[i] - damage);
+		// deja de moverse en el acto, sin esperar a la siguiente decisión
+		s.vx[i] = 0;
+		s.vy[i] = 0;
+		if (!s.isDead(i)) {
+			play(s, i, ANIM_HURT);
+			s.animDuration[i] = 0.3f;
 		} else {
 			// Enemigo murió, reproducir animación de muerte forzosamente
-			forcePlay("death", BASE_PATH);
+			forcePlay(s, i, ANIM_DEATH);
+		}
+	}
+
+	/**
+	 * Muerto y con la animación de muerte terminada: ya no cambia,
+	 * así que no hace falta seguir simulándolo
+	 */
+	public static boolean isSettled(EnemyStore s, int i) {
+		return s.isDead(i) && s.anim[i] == ANIM_DEATH && isAnimationFinished(s, i);
+	}
+
+	/**
+	 * Dibuja el enemigo i interpolando entre la posición del paso anterior y la actual
+	 * @param alpha fracción del paso fijo transcurrida desde la última simulación (0..1)
+	 */
+	public static void render(Batch batch, EnemyStore s, int i, float alpha) {
+		int a = s.anim[i];
+		if (a < 0 || animations[a] == null) return;
+		TextureRegion frame;
+		if (sharedClocks && looping[a]) {
+			// frame del reloj compartido desplazado por el desfase del orco
+			TextureRegion[] frames = keyFrames[a];
+			int offset = ((s.animPhase[i] & 0xFF) * frames.length) >> 8;
+			frame = frames[(sharedFrame[a] + offset) % frames.length];
+		} else {
+			// escalar el tiempo para que la animación dure animDuration
+			float time = s.animDuration[i] > 0
+					? s.animTime[i] * animations[a].getAnimationDuration() / s.animDuration[i]
+					: s.animTime[i];
+			frame = animations[a].getKeyFrame(time, looping[a]);
+		}
+		if (frame == null) return;
+
+		float px = s.renderX(i, alpha);
+		float py = s.renderY(i, alpha);
+		if (s.flipLeft[i]) {
+			Resources.draw(batch, frame, px + s.width, py, -s.width, s.height);
+		} else {
+			Resources.draw(batch, frame, px, py, s.width, s.height);
+		}
+	}
+
+	/**
+	 * Dibuja el cadáver c (enemigo ya retirado del almacén)
+	 */
+	public static void renderCorpse(Batch batch, EnemyStore s, int c) {
+		if (corpseFrame == null) return;
+		if (s.corpseFlip[c]) {
+			Resources.draw(batch, corpseFrame, s.corpseX[c] + s.width, s.corpseY[c], -s.width, s.height);
+		} else {
+			Resources.draw(batch, corpseFrame, s.corpseX[c], s.corpseY[c], s.width, s.height);
+		}
+	}
+
+	// ============================================================
+	// AUXILIARES
+	// ============================================================
+
+	/**
+	 * Número aleatorio en [0, 1) del propio orco (su flujo en EnemyStore.rng).
+	 * No comparte estado con otros orcos, así que el resultado no depende
+	 * del orden ni del hilo en que se actualicen.
+	 */
+	private static float random(EnemyStore s, int i) {
+		return Rng.nextFloat(s.rng, i);
+	}
+
+	private static boolean tryAttack(EnemyStore s, int i) {
+		if (s.cooldown[i] <= 0) {
+			s.attacking[i] = true;
+			s.cooldown[i] = ATTACK_COOLDOWN;
+			return true;
 		}
+		return false;
+	}
+
+	private static void play(EnemyStore s, int i, int a) {
+		if (s.anim[i] != a) forcePlay(s, i, a);
+	}
+
+	private static void forcePlay(EnemyStore s, int i, int a) {
+		s.anim[i] = a;
+		s.animTime[i] = 0f;
+		s.animDuration[i] = handles[a].getDuration();
+	}
+
+	private static boolean isAnimationFinished(EnemyStore s, int i) {
+		return s.animTime[i] >= s.animDuration[i];
 	}
 }
@@ -1,20 +1,34 @@
 package io.game.entities.characters;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
 
 import io.game.components.CombatComponent;
 import io.game.components.HealthComponent;
+import io.game.managers.AnimationHandle;
 import io.game.managers.Resources;
+import io.game.world.InputCommand;
 
 public class Player extends Character {
 
 	public static final String BASE_PATH = "graphics/sprites/characters/player";
-	private boolean damageApplied = false; // Control para aplicar daño solo una vez por ataque
+	private boolean hitPending = false; // el ataque llegó al impacto y aún no se ha resuelto
 	private int keys = 0; // Cantidad de llaves que tiene el jugador
 	private int flasks = 0; // Cantidad de frascos de curación
 
+	// Órdenes del paso actual (ver applyCommand)
+	private final InputCommand command = new InputCommand();
+
+	// Animaciones: los handles existen siempre; se resuelven en loadTextures().
+	// Duración = frames de la hoja * segundos por frame (los de loadTextures)
+	private static final AnimationHandle idle = Resources.animationHandle("idle", BASE_PATH).duration(0.6f);
+	private static final AnimationHandle walk = Resources.animationHandle("walk", BASE_PATH).duration(0.8f);
+	private static final AnimationHandle hurt = Resources.animationHandle("hurt", BASE_PATH).duration(0.4f);
+	private static final AnimationHandle death = Resources.animationHandle("death", BASE_PATH).duration(0.4f);
+	private static final AnimationHandle attack01 = Resources.animationHandle("attack01", BASE_PATH)
+			.duration(0.6f).addEvent(0.7f, AnimationHandle.EVENT_HIT);
+	private static final AnimationHandle attack02 = Resources.animationHandle("attack02", BASE_PATH)
+			.duration(0.6f).addEvent(0.7f, AnimationHandle.EVENT_HIT);
+
 	/**
 	 * Carga inicial de animaciones (llamar una vez en el setup del juego)
 	 */
@@ -37,7 +51,14 @@ public class Player extends Character {
 		combat = new CombatComponent(10, 0.5f, 70); // 10 daño, 0.5s cooldown, 70 rango
 		health = new HealthComponent(20);
 
-		play("idle", BASE_PATH);
+		play(idle);
+	}
+
+	/**
+	 * Fija las órdenes para el siguiente paso (llamar antes de update)
+	 */
+	public void applyCommand(InputCommand cmd) {
+		command.set(cmd);
 	}
 
 	@Override
@@ -46,17 +67,17 @@ public class Player extends Character {
 		if (health.isDead()) {
 			movement.set(0, 0);
 			// Reproducir animación de muerte si aún no se ha reproducido
-			if (!this.animation.equals(Resources.getAnimation("death", BASE_PATH))) {
-				play("death", BASE_PATH);
+			if (this.clip != death) {
+				play(death);
 			}
 			super.update(dt);
 			return;
 		}
 		
-		boolean up = Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP);
-		boolean down = Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN);
-		boolean left = Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT);
-		boolean right = Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT);
+		boolean up = command.isDown(InputCommand.UP);
+		boolean down = command.isDown(InputCommand.DOWN);
+		boolean left = command.isDown(InputCommand.LEFT);
+		boolean right = command.isDown(InputCommand.RIGHT);
 
 		movement.set(0, 0);
 		if (up)
@@ -68,68 +89,71 @@ public class Player extends Character {
 		if (right)
 			movement.x += maxSpeed;
 	
-		boolean attack1 = Gdx.input.isKeyJustPressed(Input.Keys.SPACE);
-		boolean attack2 = Gdx.input.isKeyJustPressed(Input.Keys.CONTROL_LEFT);
+		boolean attack1 = command.consume(InputCommand.ATTACK1);
+		boolean attack2 = command.consume(InputCommand.ATTACK2);
 		
 		// Usar flask con tecla Q
-		if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) {
+		if (command.consume(InputCommand.FLASK)) {
 			useFlask();
 		}
 
 		if (attack1 || attack2) {
 			combat.tryAttack();
 			if (combat.isAttacking()) {
-			    play(attack1 ? "attack01" : "attack02", BASE_PATH);
+			    // forcePlay: un ataque encadenado debe reiniciar la animación (y su ventana de daño)
+			    forcePlay(attack1 ? attack01 : attack02);
 			    this.setAnimationDuration(combat.getCooldown());
-			    damageApplied = false; // Resetear para el nuevo ataque
 			}
 		}
 
 		// Solo cambiar animación si no está atacando ni herido
-		if (!combat.isAttacking() && !this.animation.equals(Resources.getAnimation("hurt", BASE_PATH))) {
+		if (!combat.isAttacking() && this.clip != hurt) {
 			if (!movement.isZero()) {
-				play("walk", BASE_PATH);
+				play(walk);
 			} else {
-				play("idle", BASE_PATH);
+				play(idle);
 			}
 		}
 		
 		// Si la animación de hurt terminó, volver a idle/walk
-		if (this.animation.equals(Resources.getAnimation("hurt", BASE_PATH)) && isAnimationFinished()) {
+		if (this.clip == hurt && isAnimationFinished()) {
 			if (!movement.isZero()) {
-				play("walk", BASE_PATH);
+				play(walk);
 			} else {
-				play("idle", BASE_PATH);
+				play(idle);
 			}
 		}
 
 		super.update(dt);
 	}
 	
+	/** Consume la orden de interactuar pendiente (llave, cofre, escaleras) */
 	public boolean wantsNextLevel() {
-        return Gdx.input.isKeyJustPressed(Input.Keys.E);
+        return command.consume(InputCommand.INTERACT);
     }
     
+    @Override
+    protected void onAnimationEvents(int events) {
+        if ((events & AnimationHandle.EVENT_HIT) != 0) {
+            hitPending = true;
+        }
+    }
+
     /**
-     * Verifica si el jugador puede hacer daño a un enemigo
+     * Consume el impacto pendiente del ataque actual (el evento "hit" de la animación)
+     * @return true una sola vez por ataque, en el paso en que llega al impacto
      */
-    public boolean canDamageEnemy(com.badlogic.gdx.math.Vector2 enemyPosition) {
-        if (damageApplied) return false;
-        if (!combat.isAttacking()) return false;
-        
-        boolean isAttack1 = this.animation.equals(Resources.getAnimation("attack01", BASE_PATH));
-        boolean isAttack2 = this.animation.equals(Resources.getAnimation("attack02", BASE_PATH));
-        if (!isAttack1 && !isAttack2) return false;
-        
-        float progress = animationState / animation.getAnimationDuration();
-        if (progress < 0.6f || progress > 0.8f) return false;
-        
-        float distance = position.dst(enemyPosition);
-        if (distance <= combat.getAttackRange()) {
-            damageApplied = true;
-            return true;
-        }
-        return false;
+    public boolean consumeHit() {
+        boolean hit = hitPending;
+        hitPending = false;
+        return hit;
+    }
+
+    /**
+     * Verifica si un enemigo está al alcance del ataque
+     */
+    public boolean canReach(float enemyX, float enemyY) {
+        return position.dst(enemyX, enemyY) <= combat.getAttackRange();
     }
     
     /**
@@ -140,10 +164,10 @@ public class Player extends Character {
     	
     	health.damage(damage);
     	if (!health.isDead()) {
-    		play("hurt", BASE_PATH);
+    		play(hurt);
     		this.setAnimationDuration(0.3f);
     	} else {
-    		play("death", BASE_PATH);
+    		play(death);
     	}
     }
     
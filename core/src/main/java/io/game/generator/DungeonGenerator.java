@@ -2,12 +2,13 @@ package io.game.generator;
 
 import io.game.components.Direction;
 import io.game.components.RoomTemplate;
+import io.game.debug.GameEvents;
 import io.game.maps.Room;
 import io.game.maps.DungeonConfig;
 import io.game.maps.DungeonGraph;
+import io.game.world.Rng;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * - objetivo mínimo de habitaciones: 6 + (level-1)
@@ -20,19 +21,25 @@ import java.util.stream.Collectors;
  */
 public class DungeonGenerator {
 
-    private final Random rnd = new Random();
+    // sin AtomicLong; la semilla la fija World con setSeed
+    private final Rng rnd = new Rng(0);
     private final LinkedList<DoorSlot> openDoors = new LinkedList<>();
+    private final List<RoomTemplate> candidates = new ArrayList<>();
 
     private final DungeonGraph graph = new DungeonGraph();
     private DungeonConfig config;
 
     public DungeonGraph getGraph() { return graph; }
 
+    /** Fija la semilla: con la misma semilla y nivel se genera la misma mazmorra */
+    public void setSeed(long seed) { rnd.setSeed(seed); }
+
     public List<Room> generate(int level) {
         // limpiar
         graph.clear();
         openDoors.clear();
 
+        GameEvents.GenerationPhase phase = GameEvents.beginGeneration();
         config = DungeonConfig.forLevel(level);
         int target = config.minRooms; // mínimo obligatorio (6,7,8...)
 
@@ -47,11 +54,11 @@ public class DungeonGenerator {
         int attempts = 0;
         int stuckCounter = 0; // contador de pasadas sin progreso
         
-        while (graph.getRooms().size() < target && !openDoors.isEmpty() && attempts < maxAttempts) {
+        while (graph.size() < target && !openDoors.isEmpty() && attempts < maxAttempts) {
             boolean anyPlaced = false;
             int pass = openDoors.size();
 
-            for (int i = 0; i < pass && graph.getRooms().size() < target; i++) {
+            for (int i = 0; i < pass && graph.size() < target; i++) {
                 DoorSlot slot = openDoors.pollFirst();
                 if (slot == null) break;
 
@@ -70,7 +77,7 @@ public class DungeonGenerator {
                 stuckCounter++;
                 // Si llevamos 3 pasadas sin colocar nada y aún no llegamos al mínimo, 
                 // intentar forzar colocación en posiciones aleatorias
-                if (stuckCounter >= 3 && graph.getRooms().size() < target) {
+                if (stuckCounter >= 3 && graph.size() < target) {
                     boolean forced = tryForceRandomRoom();
                     if (forced) {
                         stuckCounter = 0;
@@ -84,8 +91,13 @@ public class DungeonGenerator {
             }
         }
 
+        GameEvents.commitGeneration(phase, level, "expansión", graph.size());
+
         // ---- cerrar puertas abiertas (cerrado o ciclos) ----
+        phase = GameEvents.beginGeneration();
         closeAllOpenDoorsWithCycles();
+        GameEvents.commitGeneration(phase, level, "cierre de puertas", graph.size());
+        phase = GameEvents.beginGeneration();
         
         // ---- VALIDACIÓN FINAL MEJORADA: asegurar sincronización perfecta ----
         // Realizar múltiples pasadas hasta que no haya cambios
@@ -118,7 +130,7 @@ public class DungeonGenerator {
                 }
                 
                 // Comparar con el template actual
-                Set<Direction> templateDoors = new HashSet<>(room.getTemplate().getDoors());
+                Set<Direction> templateDoors = EnumSet.copyOf(room.getTemplate().getDoors());
                 
                 if (!templateDoors.equals(actualConnections)) {
                     // Hay desincronización - actualizar template
@@ -168,12 +180,15 @@ public class DungeonGenerator {
         }
         
         if (allValid) {
-            System.out.println("✓ All " + graph.getRooms().size() + " rooms are valid (no doors to void)");
+            System.out.println("✓ All " + graph.size() + " rooms are valid (no doors to void)");
         } else {
             System.err.println("✗ Some rooms have invalid doors!");
         }
 
+        GameEvents.commitGeneration(phase, level, "validación", graph.size());
+
         // ---- colocar escalera en una hoja (habitacion con 1 conexion) ----
+        phase = GameEvents.beginGeneration();
         Room leaf = findFarthestLeaf(start);
         if (leaf != null) leaf.hasStairs = true;
         
@@ -182,6 +197,7 @@ public class DungeonGenerator {
 
         // ---- asegurar conectividad (BFS simple) ----
         ensureConnectivity(start);
+        GameEvents.commitGeneration(phase, level, "escaleras y cofres", graph.size());
         
         return new ArrayList<>(graph.getRooms());
     }
@@ -238,7 +254,7 @@ public class DungeonGenerator {
                 if (canPlaceTemplateAt(nx, ny, simpleTpl)) {
                     // Añadir puerta a la habitación origen si no la tiene
                     if (!room.hasDoor(d)) {
-                        Set<Direction> newDoors = new HashSet<>(room.getTemplate().getDoors());
+                        Set<Direction> newDoors = EnumSet.copyOf(room.getTemplate().getDoors());
                         newDoors.add(d);
                         RoomTemplate newTpl = findTemplateWithDoors(newDoors);
                         if (newTpl != null) {
@@ -285,10 +301,11 @@ public class DungeonGenerator {
             return false;
         }
 
-        // candidatos que incluyen puerta opuesta
-        List<RoomTemplate> candidates = Arrays.stream(RoomTemplate.values())
-                .filter(t -> t.hasDoor(d.opposite()))
-                .collect(Collectors.toList());
+        // candidatos que incluyen puerta opuesta (lista reutilizada entre llamadas)
+        candidates.clear();
+        for (RoomTemplate t : RoomTemplate.values()) {
+            if (t.hasDoor(d.opposite())) candidates.add(t);
+        }
 
         Collections.shuffle(candidates, rnd);
 
@@ -488,7 +505,7 @@ public class DungeonGenerator {
     // ----------------------------
     private void addDoorToRoomAndConnect(Room target, Direction dir, Room source) {
         // crear nuevo Door set = union entre target.template.getDoors() y dir
-        Set<Direction> union = new HashSet<>(target.getTemplate().getDoors());
+        Set<Direction> union = EnumSet.copyOf(target.getTemplate().getDoors());
         union.add(dir);
 
         // buscar RoomTemplate que tenga exactamente ese conjunto
@@ -525,7 +542,7 @@ public class DungeonGenerator {
     // removeDoorFromRoom: elimina una puerta del template de una habitación
     // ----------------------------
     private void removeDoorFromRoom(Room room, Direction dir) {
-        Set<Direction> currentDoors = new HashSet<>(room.getTemplate().getDoors());
+        Set<Direction> currentDoors = EnumSet.copyOf(room.getTemplate().getDoors());
         if (!currentDoors.contains(dir)) return; // no tiene esa puerta
         
         // si ya está conectada, no eliminar
@@ -645,7 +662,8 @@ public class DungeonGenerator {
         if (all.isEmpty()) return start;
 
         Queue<Room> q = new LinkedList<>();
-        Map<Room, Integer> dist = new HashMap<>();
+        // LinkedHashMap: orden de recorrido estable para que la semilla reproduzca la mazmorra
+        Map<Room, Integer> dist = new LinkedHashMap<>();
         q.add(start);
         dist.put(start, 0);
 
@@ -0,0 +1,95 @@
+package io.game.managers;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Referencia tipada a una animación de Resources. Se obtiene al encolar la carga
+ * y queda resuelta al llamar a Resources.finish(), de modo que el bucle de juego
+ * accede a la animación sin construir rutas ni buscar en mapas.
+ */
+public final class AnimationHandle {
+
+    /** Evento de fotograma clave: momento de impacto de un ataque */
+    public static final int EVENT_HIT = 1;
+
+    private final String path;
+    Animation<TextureRegion> animation;
+    // se fija al construir la animación, para no comparar el PlayMode en cada frame
+    boolean looping;
+
+    // duración declarada en segundos: la que usa la simulación, con o sin gráficos
+    private float duration;
+
+    // pista de eventos: fracción de la animación (0..1) y bit del evento
+    private float[] eventAt = new float[0];
+    private int[] eventBits = new int[0];
+
+    AnimationHandle(String path) {
+        this.path = path;
+    }
+
+    /** Animación ya construida (null hasta llamar a Resources.finish()) */
+    public Animation<TextureRegion> get() {
+        return animation;
+    }
+
+    /** La animación se repite (cualquiera de los PlayMode LOOP_*) */
+    public boolean isLooping() {
+        return looping;
+    }
+
+    public static boolean isLooping(PlayMode mode) {
+        return mode == PlayMode.LOOP || mode == PlayMode.LOOP_PINGPONG
+                || mode == PlayMode.LOOP_RANDOM || mode == PlayMode.LOOP_REVERSED;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Declara la duración del clip en segundos (frames * segundos por frame de la
+     * hoja). Se declara al crear el handle, como los eventos: la simulación lee
+     * esta duración y nunca la de la Animation, que solo existe con gráficos.
+     */
+    public AnimationHandle duration(float seconds) {
+        this.duration = seconds;
+        return this;
+    }
+
+    /** Duración declarada en segundos (0 si no se declaró) */
+    public float getDuration() {
+        return duration;
+    }
+
+    /**
+     * Declara un evento en la pista de la animación. Se declara una vez, al
+     * crear el handle; la pista es la misma con o sin gráficos.
+     * @param fraction fracción de la animación en la que se dispara (ej: 0.7 = 70%)
+     * @param event bit del evento (EVENT_HIT, ...)
+     */
+    public AnimationHandle addEvent(float fraction, int event) {
+        int n = eventAt.length;
+        eventAt = Arrays.copyOf(eventAt, n + 1);
+        eventBits = Arrays.copyOf(eventBits, n + 1);
+        eventAt[n] = fraction;
+        eventBits[n] = event;
+        return this;
+    }
+
+    /**
+     * Eventos que el reloj cruza al pasar de una fracción a otra
+     * @return bits de los eventos con marca en (from, to], 0 si ninguno
+     */
+    public int eventsCrossed(float from, float to) {
+        int events = 0;
+        for (int k = 0; k < eventAt.length; k++) {
+            if (from < eventAt[k] && eventAt[k] <= to) events |= eventBits[k];
+        }
+        return events;
+    }
+}
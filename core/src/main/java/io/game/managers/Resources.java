@@ -5,38 +5,80 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasSprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.SpriteDrawable;
+import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Array;
 
+import io.game.debug.GameEvents;
+
 /**
  * Clase global para gestionar recursos del juego (texturas y animaciones)
  * Usa AssetManager internamente y permite insertar en una cola las animaciones para ser
  * construidas al llamar a finish().
+ * Los metodos de carga devuelven handles (AnimationHandle, TextureHandle) que quedan
+ * resueltos en finish(); el bucle de juego debe usarlos en vez de buscar por nombre.
+ *
+ * Si existe el atlas generado por la tarea de Gradle packTextures (ATLAS), las
+ * imágenes empaquetadas se sacan de él: las hojas de sprites ya vienen cortadas
+ * en celdas sin margen y todo comparte textura. Si no existe, se cargan las
+ * imágenes sueltas como siempre.
+ *
+ * Las regiones del atlas guardan solo la parte no transparente de la imagen; se
+ * dibujan con draw()/add()/getDrawable(), que las colocan con su desplazamiento
+ * dentro del tamaño original.
  * 
  * @author Rodny Estrada <rrodnyestrada1@gmail.com>
  */
 public class Resources {
 
-    private static final AssetManager assets = new AssetManager();
-    private static final Map<String, Animation<TextureRegion>> animations = new HashMap<>();
+    /** Atlas con los sprites del juego (ver la tarea packTextures de build.gradle) */
+    public static final String ATLAS = "atlas/game.atlas";
+
+    // se crea al cargar el primer recurso: una simulación sin gráficos nunca lo necesita
+    private static AssetManager assets;
+    // null si el atlas no se ha generado
+    private static TextureAtlas atlas;
+    private static final Map<String, AnimationHandle> animations = new HashMap<>();
+    private static final Map<String, TextureHandle> textures = new HashMap<>();
     private static final Queue<AnimationJob> animationQueue = new LinkedList<>();
+    private static final Queue<TextureHandle> textureQueue = new LinkedList<>();
 
     /**
      * finaliza la carga de todos los recursos pendientes y construye las animaciones en cola
      * Este metodo debe llamarse despues de cargar todos los recursos y antes de usarlos
      */
     public static void finish() {
-        assets.finishLoading();
+        GameEvents.AssetLoad event = GameEvents.beginAssetLoad();
+        int textureCount = textureQueue.size();
+        int animationCount = animationQueue.size();
+        assets().finishLoading();
+
+        // resolver los handles de texturas
+        while (!textureQueue.isEmpty()) {
+            TextureHandle handle = textureQueue.poll();
+            handle.texture = assets().get(handle.getPath(), Texture.class);
+            handle.region = new TextureRegion(handle.texture);
+        }
 
         // construir las animaciones
         while (!animationQueue.isEmpty()) {
             AnimationJob job = animationQueue.poll();
             buildAnimation(job);
         }
+        // en "finish" los frames son el número de animaciones construidas
+        GameEvents.commitAssetLoad(event, "finish", textureCount, animationCount);
     }
 
     // ============================================================
@@ -46,50 +88,84 @@ public class Resources {
     /**
      * Carga una animación desde un archivo de textura, dividiéndola en frames automáticamente.
      */
-    public static void loadAnimation(String path, float frameWidth, float frameHeight, float speed) {
-        loadAnimation(path, frameWidth, frameHeight, speed, 0, 0, PlayMode.LOOP);
+    public static AnimationHandle loadAnimation(String path, float frameWidth, float frameHeight, float speed) {
+        return loadAnimation(path, frameWidth, frameHeight, speed, 0, 0, PlayMode.LOOP);
     }
 
     /**
      * Carga una animación desde un archivo de textura con padding entre frames.
      * Encola la construcción de la animación para ser procesada al llamar a finish()
+     * @return handle que contendrá la animación tras finish()
      */
-    public static void loadAnimation(String path, float frameWidth, float frameHeight,
-                                     float speed, float padX, float padY, PlayMode playMode) {
+    public static AnimationHandle loadAnimation(String path, float frameWidth, float frameHeight,
+                                                float speed, float padX, float padY, PlayMode playMode) {
 
-        loadTexture(path);
+        AnimationHandle handle = animationHandle(path);
+
+        // empaquetada en el atlas: los frames ya están cortados, no hace falta la textura suelta
+        if (findRegion(path) == null) loadTexture(path);
         animationQueue.add(new AnimationJob(
-                path, frameWidth, frameHeight, speed, padX, padY, playMode
+                handle, frameWidth, frameHeight, speed, padX, padY, playMode
         ));
+        return handle;
     }
 
     /**
      * Carga una animacion usando nombre y ruta base, construyendo la ruta automaticamente
      */
-    public static void loadAnimation(String name, String basePath,
-                                     float frameWidth, float frameHeight, float speed) {
-        loadAnimation(name, basePath, frameWidth, frameHeight, speed, 0, 0, PlayMode.LOOP);
+    public static AnimationHandle loadAnimation(String name, String basePath,
+                                                float frameWidth, float frameHeight, float speed) {
+        return loadAnimation(name, basePath, frameWidth, frameHeight, speed, 0, 0, PlayMode.LOOP);
     }
 
     /**
      * Carga una animación usando nombre y ruta base con padding entre frames.
      */
-    public static void loadAnimation(String name, String basePath,
-                                     float frameWidth, float frameHeight,
-                                     float speed, float padX, float padY, PlayMode mode) {
+    public static AnimationHandle loadAnimation(String name, String basePath,
+                                                float frameWidth, float frameHeight,
+                                                float speed, float padX, float padY, PlayMode mode) {
 
-        loadAnimation(joinPath(name, basePath), frameWidth, frameHeight, speed, padX, padY, mode);
+        return loadAnimation(joinPath(name, basePath), frameWidth, frameHeight, speed, padX, padY, mode);
     }
 
     /**
-     * Construye la animación usando la textura ya cargada y los parámetros del job.
-     * Divide la textura en frames y crea la animación con modo LOOP.
+     * Devuelve el handle de una animación sin encolar su carga. Sirve para declarar
+     * las animaciones en campos estáticos: sin llamar a loadAnimation() y finish()
+     * (p. ej. en una simulación sin gráficos) el handle existe pero get() es null.
      */
-    private static void buildAnimation(AnimationJob job) {
-        Texture texture = getTexture(job.path);
+    public static AnimationHandle animationHandle(String path) {
+        AnimationHandle handle = animations.get(path);
+        if (handle == null) {
+            handle = new AnimationHandle(path);
+            animations.put(path, handle);
+        }
+        return handle;
+    }
 
+    public static AnimationHandle animationHandle(String name, String basePath) {
+        return animationHandle(joinPath(name, basePath));
+    }
+
+    /**
+     * Construye la animación con los frames del atlas o, sin atlas, dividiendo
+     * la textura ya cargada según los parámetros del job.
+     */
+    private static void buildAnimation(AnimationJob job) {
+        GameEvents.AssetLoad event = GameEvents.beginAssetLoad();
         Array<TextureRegion> frames = new Array<>();
 
+        Array<AtlasRegion> packed = findRegions(job.handle.getPath());
+        if (packed.size > 0) {
+            frames.addAll(packed);
+            job.handle.animation = new Animation<>(job.speed, frames, job.playMode);
+            job.handle.looping = AnimationHandle.isLooping(job.playMode);
+            checkDuration(job.handle);
+            GameEvents.commitAssetLoad(event, job.handle.getPath(), 0, frames.size);
+            return;
+        }
+
+        Texture texture = getTexture(job.handle.getPath());
+
         int texWidth = texture.getWidth();
         int texHeight = texture.getHeight();
 
@@ -114,17 +190,30 @@ public class Resources {
             }
         }
 
-        Animation<TextureRegion> animation = new Animation<>(job.speed, frames, job.playMode);
-        animations.put(job.path, animation);
+        job.handle.animation = new Animation<>(job.speed, frames, job.playMode);
+        job.handle.looping = AnimationHandle.isLooping(job.playMode);
+        checkDuration(job.handle);
+        GameEvents.commitAssetLoad(event, job.handle.getPath(), 1, frames.size);
+    }
+
+    // ----------------------------
+    // Avisa si la hoja cargada no dura lo que declara su handle (la simulación usa lo declarado)
+    // ----------------------------
+    private static void checkDuration(AnimationHandle handle) {
+        float loaded = handle.animation.getAnimationDuration();
+        if (Math.abs(loaded - handle.getDuration()) > 0.001f) {
+            System.err.println("Animación " + handle.getPath() + ": la hoja dura " + loaded
+                + " s pero el handle declara " + handle.getDuration() + " s");
+        }
     }
 
     /**
      * Obtiene una animación previamente cargada por su ruta completa.
      */
     public static Animation<TextureRegion> getAnimation(String path) {
-        Animation<TextureRegion> a = animations.get(path);
-        if (a == null) throw new IllegalArgumentException("Animation not found: " + path);
-        return a;
+        AnimationHandle h = animations.get(path);
+        if (h == null || h.animation == null) throw new IllegalArgumentException("Animation not found: " + path);
+        return h.animation;
     }
 
     /**
@@ -140,23 +229,73 @@ public class Resources {
     
     /**
      * Carga una textura desde la ruta especificada.
+     * @return handle que contendrá la textura tras finish()
      */
-    public static void loadTexture(String path) {
-        assets.load(path, Texture.class);
+    public static TextureHandle loadTexture(String path) {
+        TextureHandle handle = textures.get(path);
+        if (handle == null) {
+            handle = new TextureHandle(path);
+            textures.put(path, handle);
+        }
+
+        AtlasRegion packed = findRegion(path);
+        if (packed != null) {
+            // empaquetada: se resuelve ya, sin pasar por el AssetManager
+            handle.region = packed;
+            handle.texture = packed.getTexture();
+            return handle;
+        }
+
+        assets().load(path, Texture.class);
+        if (handle.texture == null) textureQueue.add(handle);
+        return handle;
     }
 
     /**
      * Carga una textura usando nombre y ruta base.
      */
-    public static void loadTexture(String name, String basePath) {
-        loadTexture(joinPath(name, basePath));
+    public static TextureHandle loadTexture(String name, String basePath) {
+        return loadTexture(joinPath(name, basePath));
+    }
+
+    /**
+     * Obtiene la región de una imagen previamente cargada (del atlas, o la textura suelta entera).
+     * Es lo que hay que usar para dibujar imágenes que pueden ir empaquetadas.
+     */
+    public static TextureRegion getRegion(String path) {
+        TextureHandle h = textures.get(path);
+        if (h == null || h.region == null) throw new IllegalArgumentException("Texture not found: " + path);
+        return h.region;
+    }
+
+    public static TextureRegion getRegion(String name, String basePath) {
+        return getRegion(joinPath(name, basePath));
+    }
+
+    /**
+     * Celda 'index' (fila a fila) de una hoja de sprites previamente cargada:
+     * del atlas si la hoja se empaquetó cortada, si no recortada de la textura
+     */
+    public static TextureRegion getSheetRegion(String path, int index, int cellWidth, int cellHeight) {
+        AtlasRegion packed = atlas != null ? atlas.findRegion(frameName(path, index)) : null;
+        if (packed != null) return packed;
+
+        Texture texture = getTexture(path);
+        int cols = Math.max(texture.getWidth() / cellWidth, 1);
+        return new TextureRegion(texture, (index % cols) * cellWidth, (index / cols) * cellHeight,
+                cellWidth, cellHeight);
+    }
+
+    public static TextureRegion getSheetRegion(String name, String basePath, int index, int cellWidth, int cellHeight) {
+        return getSheetRegion(joinPath(name, basePath), index, cellWidth, cellHeight);
     }
 
     /**
      * Obtiene una textura previamente cargada por su ruta completa
+     * (solo imágenes sueltas; las empaquetadas se piden con getRegion)
      */
     public static Texture getTexture(String path) {
-        return assets.get(path, Texture.class);
+        return assets().get(path, Texture.class);
     }
 
     /**
@@ -166,10 +305,130 @@ public class Resources {
         return getTexture(joinPath(name, basePath));
     }
 
+    // ============================================================
+    // DIBUJO
+    // ============================================================
+
+    /**
+     * Dibuja la región ocupando el rectángulo (x, y, width, height) como la imagen
+     * original. Las del atlas vienen sin el borde transparente y se colocan con su
+     * desplazamiento; un ancho negativo la voltea (x es entonces el borde derecho).
+     */
+    public static void draw(Batch batch, TextureRegion region, float x, float y, float width, float height) {
+        if (region instanceof AtlasRegion) {
+            AtlasRegion r = (AtlasRegion) region;
+            float scaleX = width / r.originalWidth;
+            float scaleY = height / r.originalHeight;
+            x += r.offsetX * scaleX;
+            y += r.offsetY * scaleY;
+            width = r.packedWidth * scaleX;
+            height = r.packedHeight * scaleY;
+        }
+        batch.draw(region, x, y, width, height);
+    }
+
+    /**
+     * Como draw(), girando rotation grados alrededor de (originX, originY),
+     * relativo a (x, y) como en Batch.draw
+     */
+    public static void draw(Batch batch, TextureRegion region, float x, float y, float originX, float originY,
+                            float width, float height, float rotation) {
+        if (region instanceof AtlasRegion) {
+            AtlasRegion r = (AtlasRegion) region;
+            float scaleX = width / r.originalWidth;
+            float scaleY = height / r.originalHeight;
+            float offsetX = r.offsetX * scaleX;
+            float offsetY = r.offsetY * scaleY;
+            // el origen sigue en el mismo punto del mundo
+            x += offsetX;
+            y += offsetY;
+            originX -= offsetX;
+            originY -= offsetY;
+            width = r.packedWidth * scaleX;
+            height = r.packedHeight * scaleY;
+        }
+        batch.draw(region, x, y, originX, originY, width, height, 1f, 1f, rotation);
+    }
+
+    /** Como draw(), guardando la imagen en la caché que se está construyendo */
+    public static void add(SpriteCache cache, TextureRegion region, float x, float y, float width, float height) {
+        if (region instanceof AtlasRegion) {
+            AtlasRegion r = (AtlasRegion) region;
+            float scaleX = width / r.originalWidth;
+            float scaleY = height / r.originalHeight;
+            x += r.offsetX * scaleX;
+            y += r.offsetY * scaleY;
+            width = r.packedWidth * scaleX;
+            height = r.packedHeight * scaleY;
+        }
+        cache.add(region, x, y, width, height);
+    }
+
+    /**
+     * Drawable para scene2d de una imagen previamente cargada, con el tamaño
+     * mínimo de la imagen original aunque en el atlas esté recortada
+     */
+    public static Drawable getDrawable(String path) {
+        TextureRegion region = getRegion(path);
+        if (region instanceof AtlasRegion) {
+            AtlasRegion r = (AtlasRegion) region;
+            if (r.packedWidth != r.originalWidth || r.packedHeight != r.originalHeight) {
+                return new SpriteDrawable(new AtlasSprite(r));
+            }
+        }
+        return new TextureRegionDrawable(region);
+    }
+
+    public static Drawable getDrawable(String name, String basePath) {
+        return getDrawable(joinPath(name, basePath));
+    }
+
     // ============================================================
     // METODOS AUXILIARES
     // ============================================================
     
+    private static AssetManager assets() {
+        if (assets == null) {
+            assets = new AssetManager();
+            loadAtlas();
+        }
+        return assets;
+    }
+
+    /** Carga el atlas ya, si se ha generado, para resolver contra él las cargas siguientes */
+    private static void loadAtlas() {
+        if (!Gdx.files.internal(ATLAS).exists()) return;
+        assets.load(ATLAS, TextureAtlas.class);
+        assets.finishLoadingAsset(ATLAS);
+        atlas = assets.get(ATLAS, TextureAtlas.class);
+    }
+
+    /** Nombre de la región en el atlas: la ruta sin la extensión */
+    private static String regionName(String path) {
+        return path.endsWith(".png") ? path.substring(0, path.length() - 4) : path;
+    }
+
+    private static AtlasRegion findRegion(String path) {
+        assets(); // el atlas se carga junto con el AssetManager
+        return atlas != null ? atlas.findRegion(regionName(path)) : null;
+    }
+
+    /** Nombre en el atlas del frame 'index' de una hoja cortada (ver packTextures) */
+    private static String frameName(String path, int index) {
+        return regionName(path) + "_" + index;
+    }
+
+    /** Frames de una hoja empaquetada, en orden de índice (vacío si no está en el atlas) */
+    private static Array<AtlasRegion> findRegions(String path) {
+        Array<AtlasRegion> regions = new Array<>();
+        if (atlas == null) return regions;
+        AtlasRegion frame;
+        while ((frame = atlas.findRegion(frameName(path, regions.size))) != null) {
+            regions.add(frame);
+        }
+        return regions;
+    }
+
     /**
      * Une un nombre de archivo con una ruta base, añadiendo la extensión .png si nos hace falta necesario
      */
@@ -182,7 +441,13 @@ public class Resources {
      * Libera todos los recursos cargados por el AssetManager
      */
     public static void dispose() {
-        assets.dispose();
+        if (assets != null) assets.dispose();
+        assets = null;
+        atlas = null;
+        for (TextureHandle h : textures.values()) {
+            h.texture = null;
+            h.region = null;
+        }
     }
 
     // ============================================================
@@ -194,7 +459,7 @@ public class Resources {
      * Almacena todos los parámetros necesarios para construir una animación cuando se llame a finish().
      */
     private static class AnimationJob {
-        final String path;
+        final AnimationHandle handle;
         final float frameWidth;
         final float frameHeight;
         final float speed;
@@ -202,10 +467,10 @@ public class Resources {
         final float padY;
         final PlayMode playMode;
 
-        AnimationJob(String path, float frameWidth, float frameHeight,
+        AnimationJob(AnimationHandle handle, float frameWidth, float frameHeight,
                      float speed, float padX, float padY, PlayMode playMode) {
 
-            this.path = path;
+            this.handle = handle;
             this.playMode = playMode;
             this.frameWidth = frameWidth;
             this.frameHeight = frameHeight;
@@ -1,6 +1,5 @@
 package io.game.managers;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import io.game.components.RoomTemplate;
@@ -15,18 +14,11 @@ public class RoomManager {
         Resources.loadTexture("room_sheet", "graphics/rooms");
         Resources.finish();
 
-        Texture sheet = Resources.getTexture("room_sheet", "graphics/rooms");
-
+        // celda de la hoja: del atlas si está empaquetada, si no recortada de la textura
         for (RoomTemplate t : RoomTemplate.values()) {
             int index = t.getSpriteIndex();
 
-            TextureRegion reg = new TextureRegion(
-                sheet,
-                index * SPRITE_W,
-                0,
-                SPRITE_W,
-                SPRITE_H
-            );
+            TextureRegion reg = Resources.getSheetRegion("room_sheet", "graphics/rooms", index, SPRITE_W, SPRITE_H);
 
             t.setRegion(reg);
         }
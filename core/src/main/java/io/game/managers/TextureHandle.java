@@ -0,0 +1,35 @@
+package io.game.managers;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Referencia tipada a una textura de Resources, resuelta al llamar a
+ * Resources.finish(). Evita construir la ruta y consultar el AssetManager
+ * cada vez que se dibuja.
+ */
+public final class TextureHandle {
+
+    private final String path;
+    Texture texture;
+    // región del atlas, o la textura suelta entera si no está empaquetada
+    TextureRegion region;
+
+    TextureHandle(String path) {
+        this.path = path;
+    }
+
+    /** Textura ya cargada (null hasta llamar a Resources.finish()) */
+    public Texture get() {
+        return texture;
+    }
+
+    /** Región lista para dibujar (null hasta llamar a Resources.finish()) */
+    public TextureRegion getRegion() {
+        return region;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
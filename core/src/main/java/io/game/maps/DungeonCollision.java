@@ -0,0 +1,261 @@
+package io.game.maps;
+
+import com.badlogic.gdx.graphics.Color;
+
+import io.game.components.Direction;
+import io.game.debug.DebugDraw;
+
+/**
+ * Colisiones contra las paredes y cofres de la mazmorra.
+ * Solo lee el grafo, así que puede usarse desde varios hilos a la vez
+ * mientras no se regenere la mazmorra.
+ */
+public class DungeonCollision {
+
+    // Grosor de pared visible en sprites (aproximadamente 14% del tile)
+    private static final float WALL_THICKNESS = 0.14f;
+    // Ancho de la puerta (11% desde el centro = 22% apertura total)
+    private static final float DOOR_HALF_WIDTH = 0.11f;
+    // Hitbox: 40% del tamaño de la entidad (20% de radio = 40% de ancho)
+    private static final float HITBOX_RADIUS = 0.2f;
+    // Cofre: un sexto del tile, centrado al 70% del tile en x e y
+    private static final float CHEST_SIZE = 1f / 6f;
+    private static final float CHEST_POSITION = 0.7f;
+    // Hitbox del cofre (ligeramente más pequeño para mejor jugabilidad)
+    private static final float CHEST_HITBOX = 0.7f;
+
+    private final float tileW, tileH;
+    private DungeonGraph graph;
+
+    public DungeonCollision(float tileW, float tileH) {
+        this.tileW = tileW;
+        this.tileH = tileH;
+    }
+
+    public void setGraph(DungeonGraph graph) {
+        this.graph = graph;
+    }
+
+    // ----------------------------
+    // Verifica si una entidad (jugador o enemigo) en (x, y) con ese tamaño colisiona con paredes
+    // ----------------------------
+    public boolean collides(float x, float y, float width, float height) {
+        // (x, y) es la esquina inferior izquierda del sprite
+        // El hitbox será un rectángulo centrado en el sprite
+        float entityCenterX = x + width * 0.5f;
+        float entityCenterY = y + height * 0.5f;
+        float hitboxRadius = width * HITBOX_RADIUS;
+        float px1 = entityCenterX - hitboxRadius;
+        float py1 = entityCenterY - hitboxRadius;
+        float px2 = entityCenterX + hitboxRadius;
+        float py2 = entityCenterY + hitboxRadius;
+        
+        // Solo las habitaciones cuyas celdas toca el hitbox (normalmente 1, como mucho 4)
+        int cx1 = DungeonGraph.cellOf(px1, tileW);
+        int cy1 = DungeonGraph.cellOf(py1, tileH);
+        int cx2 = DungeonGraph.cellOf(px2, tileW);
+        int cy2 = DungeonGraph.cellOf(py2, tileH);
+        for (int cy = cy1; cy <= cy2; cy++) {
+            for (int cx = cx1; cx <= cx2; cx++) {
+                Room room = graph.getRoom(cx, cy);
+                if (room != null && collidesWithRoom(room, px1, py1, px2, py2)) {
+                    return true;
+                }
+            }
+        }
+        
+        return false;
+    }
+    
+    // ----------------------------
+    // Verifica si un hitbox choca con las paredes o el cofre de una habitación
+    // ----------------------------
+    private boolean collidesWithRoom(Room room, float px1, float py1, float px2, float py2) {
+        float rx = room.x * tileW;
+        float ry = room.y * tileH;
+        float wallThickness = tileW * WALL_THICKNESS;
+        float doorHalfWidth = tileW * DOOR_HALF_WIDTH;
+        
+        // PARED NORTE (arriba) - borde interno
+        if (!room.hasDoor(Direction.N)) {
+            // Pared completa: desde borde interno hacia adentro
+            float wallInnerY = ry + tileH - wallThickness;
+            if (intersects(px1, py1, px2, py2,
+                          rx, wallInnerY, rx + tileW, ry + tileH)) {
+                return true;
+            }
+        } else {
+            // Pared con puerta - dos segmentos a los lados (extendidos hasta el borde)
+            float centerX = rx + tileW * 0.5f;
+            float wallInnerY = ry + tileH - wallThickness;
+            // Segmento izquierdo (hasta el borde izquierdo completo)
+            if (intersects(px1, py1, px2, py2,
+                          rx, wallInnerY, centerX - doorHalfWidth, ry + tileH)) {
+                return true;
+            }
+            // Segmento derecho (hasta el borde derecho completo)
+            if (intersects(px1, py1, px2, py2,
+                          centerX + doorHalfWidth, wallInnerY, rx + tileW, ry + tileH)) {
+                return true;
+            }
+        }
+        
+        // PARED SUR (abajo) - borde interno
+        if (!room.hasDoor(Direction.S)) {
+            // Pared completa
+            float wallInnerY = ry + wallThickness;
+            if (intersects(px1, py1, px2, py2,
+                          rx, ry, rx + tileW, wallInnerY)) {
+                return true;
+            }
+        } else {
+            // Pared con puerta - dos segmentos a los lados (extendidos hasta los bordes)
+            float centerX = rx + tileW * 0.5f;
+            float wallInnerY = ry + wallThickness;
+            // Segmento izquierdo (hasta el borde izquierdo completo)
+            if (intersects(px1, py1, px2, py2,
+                          rx, ry, centerX - doorHalfWidth, wallInnerY)) {
+                return true;
+            }
+            // Segmento derecho (hasta el borde derecho completo)
+            if (intersects(px1, py1, px2, py2,
+                          centerX + doorHalfWidth, ry, rx + tileW, wallInnerY)) {
+                return true;
+            }
+        }
+        
+        // PARED ESTE (derecha) - borde interno
+        if (!room.hasDoor(Direction.E)) {
+            // Pared completa
+            float wallInnerX = rx + tileW - wallThickness;
+            if (intersects(px1, py1, px2, py2,
+                          wallInnerX, ry, rx + tileW, ry + tileH)) {
+                return true;
+            }
+        } else {
+            // Pared con puerta - dos segmentos arriba y abajo (extendidos hasta los bordes)
+            float centerY = ry + tileH * 0.5f;
+            float wallInnerX = rx + tileW - wallThickness;
+            // Segmento inferior (hasta el borde inferior completo)
+            if (intersects(px1, py1, px2, py2,
+                          wallInnerX, ry, rx + tileW, centerY - doorHalfWidth)) {
+                return true;
+            }
+            // Segmento superior (hasta el borde superior completo)
+            if (intersects(px1, py1, px2, py2,
+                          wallInnerX, centerY + doorHalfWidth, rx + tileW, ry + tileH)) {
+                return true;
+            }
+        }
+        
+        // PARED OESTE (izquierda) - borde interno
+        if (!room.hasDoor(Direction.O)) {
+            // Pared completa
+            float wallInnerX = rx + wallThickness;
+            if (intersects(px1, py1, px2, py2,
+                          rx, ry, wallInnerX, ry + tileH)) {
+                return true;
+            }
+        } else {
+            // Pared con puerta - dos segmentos arriba y abajo (extendidos hasta los bordes)
+            float centerY = ry + tileH * 0.5f;
+            float wallInnerX = rx + wallThickness;
+            // Segmento inferior (hasta el borde inferior completo)
+            if (intersects(px1, py1, px2, py2,
+                          rx, ry, wallInnerX, centerY - doorHalfWidth)) {
+                return true;
+            }
+            // Segmento superior (hasta el borde superior completo)
+            if (intersects(px1, py1, px2, py2,
+                          rx, centerY + doorHalfWidth, wallInnerX, ry + tileH)) {
+                return true;
+            }
+        }
+        
+        // COLISIÓN CON COFRE (si existe en la habitación)
+        if (room.hasChest) {
+            float chestHitboxSize = tileW * CHEST_SIZE * CHEST_HITBOX;
+            float chestCenterX = rx + tileW * CHEST_POSITION;
+            float chestCenterY = ry + tileH * CHEST_POSITION;
+            float cx1 = chestCenterX - chestHitboxSize * 0.5f;
+            float cy1 = chestCenterY - chestHitboxSize * 0.5f;
+            float cx2 = chestCenterX + chestHitboxSize * 0.5f;
+            float cy2 = chestCenterY + chestHitboxSize * 0.5f;
+            
+            if (intersects(px1, py1, px2, py2, cx1, cy1, cx2, cy2)) {
+                return true;
+            }
+        }
+    
+        return false;
+    }
+    
+    // ----------------------------
+    // DEBUG: encola las paredes y el cofre de una habitación (misma geometría que collidesWithRoom)
+    // ----------------------------
+    public void debugDraw(Room room) {
+        if (!DebugDraw.isEnabled()) return;
+        float rx = room.x * tileW;
+        float ry = room.y * tileH;
+        float wallThickness = tileW * WALL_THICKNESS;
+        float doorHalfWidth = tileW * DOOR_HALF_WIDTH;
+        float centerX = rx + tileW * 0.5f;
+        float centerY = ry + tileH * 0.5f;
+        float sideW = centerX - doorHalfWidth - rx;
+        float sideH = centerY - doorHalfWidth - ry;
+
+        // NORTE y SUR: pared completa o dos segmentos a los lados de la puerta
+        float northY = ry + tileH - wallThickness;
+        if (!room.hasDoor(Direction.N)) {
+            DebugDraw.rect(rx, northY, tileW, wallThickness, Color.RED);
+        } else {
+            DebugDraw.rect(rx, northY, sideW, wallThickness, Color.RED);
+            DebugDraw.rect(centerX + doorHalfWidth, northY, sideW, wallThickness, Color.RED);
+        }
+        if (!room.hasDoor(Direction.S)) {
+            DebugDraw.rect(rx, ry, tileW, wallThickness, Color.RED);
+        } else {
+            DebugDraw.rect(rx, ry, sideW, wallThickness, Color.RED);
+            DebugDraw.rect(centerX + doorHalfWidth, ry, sideW, wallThickness, Color.RED);
+        }
+
+        // ESTE y OESTE: pared completa o dos segmentos arriba y abajo de la puerta
+        float eastX = rx + tileW - wallThickness;
+        if (!room.hasDoor(Direction.E)) {
+            DebugDraw.rect(eastX, ry, wallThickness, tileH, Color.RED);
+        } else {
+            DebugDraw.rect(eastX, ry, wallThickness, sideH, Color.RED);
+            DebugDraw.rect(eastX, centerY + doorHalfWidth, wallThickness, sideH, Color.RED);
+        }
+        if (!room.hasDoor(Direction.O)) {
+            DebugDraw.rect(rx, ry, wallThickness, tileH, Color.RED);
+        } else {
+            DebugDraw.rect(rx, ry, wallThickness, sideH, Color.RED);
+            DebugDraw.rect(rx, centerY + doorHalfWidth, wallThickness, sideH, Color.RED);
+        }
+
+        if (room.hasChest) {
+            float chestHitboxSize = tileW * CHEST_SIZE * CHEST_HITBOX;
+            float chestCenterX = rx + tileW * CHEST_POSITION;
+            float chestCenterY = ry + tileH * CHEST_POSITION;
+            DebugDraw.rect(chestCenterX - chestHitboxSize * 0.5f, chestCenterY - chestHitboxSize * 0.5f,
+                chestHitboxSize, chestHitboxSize, Color.YELLOW);
+        }
+    }
+
+    // ----------------------------
+    // DEBUG: encola el hitbox que usa collides() para una entidad en (x, y)
+    // ----------------------------
+    public static void debugDrawHitbox(float x, float y, float width, float height, Color color) {
+        if (!DebugDraw.isEnabled()) return;
+        float hitboxRadius = width * HITBOX_RADIUS;
+        DebugDraw.rect(x + width * 0.5f - hitboxRadius, y + height * 0.5f - hitboxRadius,
+            hitboxRadius * 2, hitboxRadius * 2, color);
+    }
+
+    // Helper: verifica si dos rectángulos AABB se intersectan
+    private static boolean intersects(float x1, float y1, float x2, float y2,
+                               float x3, float y3, float x4, float y4) {
+        return x1 < x4 && x2 > x3 && y1 < y4 && y2 > y3;
+    }
+}
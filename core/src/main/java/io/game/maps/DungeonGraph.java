@@ -1,21 +1,31 @@
 package io.game.maps;
 
+import com.badlogic.gdx.utils.LongMap;
+
 import io.game.components.Direction;
 import java.util.*;
 
 /**
  * Grafo simple que mapea (x,y) -> Node(room) y guarda vecinos.
+ * Las claves son long primitivos (LongMap), así que las búsquedas por celda
+ * no reservan memoria aunque se hagan miles de veces por frame.
  */
 public class DungeonGraph {
 
     public static class Node {
         public final Room room;
+        public final int index; // índice denso [0, size) para indexar arrays por habitación
         public final EnumMap<Direction, Node> neighbors = new EnumMap<>(Direction.class);
 
-        public Node(Room r) { this.room = r; }
+        public Node(Room r, int index) {
+            this.room = r;
+            this.index = index;
+        }
     }
 
-    private final Map<Long, Node> graph = new HashMap<>();
+    private final LongMap<Node> graph = new LongMap<>();
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Room> roomsView = Collections.unmodifiableList(rooms);
 
     private long key(int x, int y) {
         return (((long) x) << 32) ^ (y & 0xffffffffL);
@@ -24,11 +34,13 @@ public class DungeonGraph {
     /** Limpia todo el grafo (mantiene la instancia) */
     public void clear() {
         graph.clear();
+        rooms.clear();
     }
 
     public Node addRoom(Room r) {
-        Node n = new Node(r);
+        Node n = new Node(r, rooms.size());
         graph.put(key(r.x, r.y), n);
+        rooms.add(r);
         return n;
     }
 
@@ -45,13 +57,34 @@ public class DungeonGraph {
         return n == null ? null : n.room;
     }
 
-    public Collection<Room> getRooms() {
-        List<Room> out = new ArrayList<>();
-        for (Node n : graph.values()) out.add(n.room);
-        return out;
+    /**
+     * Habitación que contiene el punto (wx, wy) en coordenadas de mundo, o null.
+     * Convierte la posición a celda y hace una sola búsqueda en el mapa: O(1).
+     */
+    public Room getRoomAt(float wx, float wy, float tileW, float tileH) {
+        return getRoom(cellOf(wx, tileW), cellOf(wy, tileH));
+    }
+
+    /** Celda de la rejilla de habitaciones a la que pertenece una coordenada de mundo */
+    public static int cellOf(float world, float tileSize) {
+        return (int) Math.floor(world / tileSize);
+    }
+
+    /** Vista de solo lectura de las habitaciones en orden de creación (no es una copia) */
+    public List<Room> getRooms() {
+        return roomsView;
     }
 
     public Node getNode(Room r) {
         return graph.get(key(r.x, r.y));
     }
+
+    public Node getNode(int x, int y) {
+        return graph.get(key(x, y));
+    }
+
+    /** Número de habitaciones del grafo (sin copiar la colección) */
+    public int size() {
+        return rooms.size();
+    }
 }
@@ -0,0 +1,104 @@
+package io.game.maps;
+
+import com.badlogic.gdx.graphics.Color;
+
+import io.game.components.Direction;
+import io.game.debug.DebugDraw;
+
+import java.util.Arrays;
+
+/**
+ * Nivel de detalle de la simulación por habitación, según la distancia en
+ * saltos (puertas) desde la habitación del jugador:
+ * - ACTIVE: a FULL_HOPS o menos, se simula cada frame
+ * - REDUCED: hasta REDUCED_HOPS, se simula a baja frecuencia
+ * - FROZEN: más lejos, no se simula
+ *
+ * Las distancias se recalculan con un BFS solo cuando el jugador cambia de habitación.
+ */
+public class RoomActivation {
+
+    public static final byte ACTIVE = 0;
+    public static final byte REDUCED = 1;
+    public static final byte FROZEN = 2;
+
+    public static final int FULL_HOPS = 2;
+    public static final int REDUCED_HOPS = 4;
+
+    // DEBUG: color de cada nivel al marcar las celdas
+    private static final Color[] DEBUG_COLORS = {
+        new Color(0f, 1f, 0f, 0.12f),
+        new Color(1f, 1f, 0f, 0.12f),
+        new Color(0f, 0.4f, 1f, 0.12f),
+    };
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private DungeonGraph graph;
+    private int[] hops = new int[0];
+    private int[] queue = new int[0];
+    private Room[] rooms = new Room[0];
+
+    /** Prepara los arrays para un grafo nuevo; todo queda congelado hasta recenter() */
+    public void reset(DungeonGraph graph) {
+        this.graph = graph;
+        int n = graph.size();
+        if (hops.length < n) {
+            hops = new int[n];
+            queue = new int[n];
+            rooms = new Room[n];
+        }
+        Arrays.fill(hops, UNREACHED);
+    }
+
+    /**
+     * Recalcula la distancia en saltos de cada habitación hasta 'center'.
+     * Solo explora hasta REDUCED_HOPS; el resto queda como FROZEN.
+     */
+    public void recenter(Room center) {
+        if (graph == null) return;
+        Arrays.fill(hops, UNREACHED);
+
+        DungeonGraph.Node start = graph.getNode(center);
+        if (start == null) return;
+
+        int head = 0, tail = 0;
+        hops[start.index] = 0;
+        rooms[start.index] = center;
+        queue[tail++] = start.index;
+
+        while (head < tail) {
+            int idx = queue[head++];
+            int d = hops[idx];
+            if (d >= REDUCED_HOPS) continue;
+
+            Room r = rooms[idx];
+            for (Direction dir : DIRECTIONS) {
+                if (!r.isConnected(dir)) continue;
+                DungeonGraph.Node n = graph.getNode(r.x + dir.dx, r.y + dir.dy);
+                if (n == null || hops[n.index] != UNREACHED) continue;
+                hops[n.index] = d + 1;
+                rooms[n.index] = n.room;
+                queue[tail++] = n.index;
+            }
+        }
+    }
+
+    /** Nivel de simulación de la habitación en la celda (x, y) */
+    public byte levelAt(int x, int y) {
+        if (graph == null) return FROZEN;
+        DungeonGraph.Node n = graph.getNode(x, y);
+        if (n == null) return FROZEN;
+        int d = hops[n.index];
+        if (d <= FULL_HOPS) return ACTIVE;
+        if (d <= REDUCED_HOPS) return REDUCED;
+        return FROZEN;
+    }
+
+    /** DEBUG: encola la celda de la habitación coloreada según su nivel */
+    public void debugDraw(Room room, float tileW, float tileH) {
+        if (!DebugDraw.isEnabled()) return;
+        DebugDraw.fillRect(room.x * tileW, room.y * tileH, tileW, tileH, DEBUG_COLORS[levelAt(room.x, room.y)]);
+    }
+}
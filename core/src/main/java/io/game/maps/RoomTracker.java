@@ -0,0 +1,71 @@
+package io.game.maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sigue la habitación en la que se encuentra una posición del mundo.
+ * Solo consulta el grafo cuando cambia la celda y notifica a los listeners
+ * al salir de una habitación y al entrar en otra.
+ */
+public class RoomTracker {
+
+    public interface Listener {
+        void onEnter(Room room);
+        void onExit(Room room);
+    }
+
+    private final List<Listener> listeners = new ArrayList<>();
+    private final float tileW, tileH;
+
+    private DungeonGraph graph;
+    private Room current;
+    private int cellX, cellY;
+    private boolean hasCell = false;
+
+    public RoomTracker(float tileW, float tileH) {
+        this.tileW = tileW;
+        this.tileH = tileH;
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    /** Olvida la habitación actual (al regenerar la mazmorra) sin disparar eventos */
+    public void reset(DungeonGraph graph) {
+        this.graph = graph;
+        this.current = null;
+        this.hasCell = false;
+    }
+
+    /**
+     * Actualiza la celda actual; si cambió, dispara onExit de la anterior
+     * y onEnter de la nueva.
+     */
+    public void update(float wx, float wy) {
+        int cx = DungeonGraph.cellOf(wx, tileW);
+        int cy = DungeonGraph.cellOf(wy, tileH);
+        if (hasCell && cx == cellX && cy == cellY) return;
+
+        cellX = cx;
+        cellY = cy;
+        hasCell = true;
+
+        Room next = graph == null ? null : graph.getRoom(cx, cy);
+        if (next == current) return;
+
+        Room previous = current;
+        current = next;
+        if (previous != null) {
+            for (int i = 0; i < listeners.size(); i++) listeners.get(i).onExit(previous);
+        }
+        if (next != null) {
+            for (int i = 0; i < listeners.size(); i++) listeners.get(i).onEnter(next);
+        }
+    }
+
+    public Room getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,113 @@
+package io.game.screens;
+
+import io.game.entities.EnemyStore;
+
+/**
+ * Orden de dibujo de orcos y jugador por profundidad: de arriba abajo en
+ * pantalla (y de mayor a menor), para que quien está más abajo tape a quien
+ * está detrás.
+ *
+ * Solo entran los enemigos que se añaden con add() en cada frame (los que
+ * caen en pantalla), más el jugador. El orden se conserva de un frame al
+ * siguiente: update() quita los que ya no se añadieron, deja los nuevos al
+ * final y lo repara con una pasada de inserción. Como las posiciones apenas
+ * cambian entre frames, el array llega casi ordenado y la pasada cuesta
+ * O(n + intercambios) en lugar de ordenar todo cada frame.
+ *
+ * Guarda índices de EnemyStore (y PLAYER para el jugador). Cuando el almacén
+ * retira un muerto mueve el último a su hueco; el índice sigue en el orden con
+ * otra posición, y la siguiente pasada lo recoloca.
+ */
+public class DepthOrder {
+
+    /** Entrada del jugador en el orden */
+    public static final int PLAYER = -1;
+
+    private int[] order = new int[64];
+    private float[] keys = new float[64];
+    private int size = 0;
+    // frame en que se añadió cada índice de enemigo por última vez
+    private int[] addedAt = new int[64];
+    private int frame = 1;
+
+    /** Olvida el orden (nivel nuevo) */
+    public void reset() {
+        size = 0;
+        // ningún índice queda marcado como añadido en el frame anterior
+        frame += 2;
+    }
+
+    /** Empieza un frame; después se añaden con add() los enemigos visibles */
+    public void begin() {
+        frame++;
+        if (size == 0) push(PLAYER);
+    }
+
+    /** El enemigo idx se dibuja en este frame */
+    public void add(int idx) {
+        if (idx >= addedAt.length) {
+            int[] newAddedAt = new int[Math.max(idx + 1, addedAt.length * 2)];
+            System.arraycopy(addedAt, 0, newAddedAt, 0, addedAt.length);
+            addedAt = newAddedAt;
+        }
+        int last = addedAt[idx];
+        if (last == frame) return;
+        addedAt[idx] = frame;
+        // si no se añadió en el frame anterior no está en el orden
+        if (last != frame - 1) push(idx);
+    }
+
+    /**
+     * Quita los enemigos que no se añadieron en este frame y repara el orden
+     * con la posición interpolada
+     */
+    public void update(EnemyStore enemies, float playerY, float alpha) {
+        int n = 0;
+        for (int k = 0; k < size; k++) {
+            int idx = order[k];
+            if (idx == PLAYER || addedAt[idx] == frame) order[n++] = idx;
+        }
+        size = n;
+
+        for (int k = 0; k < size; k++) {
+            int idx = order[k];
+            keys[k] = idx == PLAYER ? playerY : enemies.renderY(idx, alpha);
+        }
+
+        // inserción: cada entrada retrocede mientras tenga más y que la anterior
+        for (int k = 1; k < size; k++) {
+            float key = keys[k];
+            if (keys[k - 1] >= key) continue;
+            int idx = order[k];
+            int j = k - 1;
+            while (j >= 0 && keys[j] < key) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = idx;
+        }
+    }
+
+    private void push(int idx) {
+        if (size == order.length) {
+            int[] newOrder = new int[size * 2];
+            float[] newKeys = new float[size * 2];
+            System.arraycopy(order, 0, newOrder, 0, size);
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            order = newOrder;
+            keys = newKeys;
+        }
+        order[size++] = idx;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Entrada k del orden de dibujo: índice de enemigo o PLAYER */
+    public int get(int k) {
+        return order[k];
+    }
+}
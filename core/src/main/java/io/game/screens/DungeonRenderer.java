@@ -1,95 +1,324 @@
 package io.game.screens;
 
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
 import io.game.managers.Resources;
+import io.game.maps.DungeonGraph;
 import io.game.maps.Room;
 
+import java.util.List;
+
 public class DungeonRenderer {
 
     private float tileW, tileH;
+    // zona visible en coordenadas de mundo (ver setView)
+    private float viewLeft, viewRight, viewBottom, viewTop;
     private Texture bg;
-    private Texture stairsTex;
-    private Texture chestCloseTex;
-    private Texture chestOpenTex;
-    private Texture keyTex;
+    private TextureRegion stairsReg;
+    private TextureRegion chestCloseReg;
+    private TextureRegion chestOpenReg;
+    private TextureRegion keyReg;
+
+    // Capa estática: un trozo de SpriteCache por cada CHUNK x CHUNK celdas con habitaciones
+    private static final int CHUNK = 4;
+    // como mucho cuatro imágenes por habitación (sala, escaleras, cofre, llave)
+    private static final int SPRITES_PER_ROOM = 4;
+    // límite de imágenes de una SpriteCache; los niveles grandes reparten sus trozos en varias
+    private static final int MAX_CACHE_SPRITES = 8191;
+
+    private static final class Chunk {
+        final int x, y;
+        final Array<Room> rooms = new Array<>();
+        // posición en caches y trozo dentro de esa caché
+        int cache;
+        int cacheId;
+
+        Chunk(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private final Array<SpriteCache> caches = new Array<>();
+    private final IntArray cacheCapacities = new IntArray();
+    private final IntArray groupSprites = new IntArray();
+    // caché entre begin() y end() mientras se dibuja, -1 si ninguna
+    private int drawing = -1;
+    private final LongMap<Chunk> chunks = new LongMap<>();
+    private final Array<Chunk> chunkList = new Array<>();
 
     public DungeonRenderer(float tileW, float tileH) {
         this.tileW = tileW;
         this.tileH = tileH;
         
         bg = Resources.getTexture("background", "graphics/tilesets/dungeons_tilesets");
-        stairsTex = Resources.getTexture("down_stairs", "graphics/sprites/world_objects");
-        chestCloseTex = Resources.getTexture("chest_close", "graphics/sprites/world_objects");
-        chestOpenTex = Resources.getTexture("chest_open", "graphics/sprites/world_objects");
-        keyTex = Resources.getTexture("key1", "graphics/sprites/objects");
+        if (bg != null) {
+            // el fondo se repite por coordenadas de textura (potencia de dos, válido en GLES2)
+            bg.setWrap(TextureWrap.Repeat, TextureWrap.Repeat);
+        }
+        // regiones del atlas (o texturas sueltas si no se ha empaquetado)
+        stairsReg = Resources.getRegion("down_stairs", "graphics/sprites/world_objects");
+        chestCloseReg = Resources.getRegion("chest_close", "graphics/sprites/world_objects");
+        chestOpenReg = Resources.getRegion("chest_open", "graphics/sprites/world_objects");
+        keyReg = Resources.getRegion("key1", "graphics/sprites/objects");
     }
 
-    public void render(SpriteBatch batch, Iterable<Room> rooms) {
+    /**
+     * Fija la zona visible a partir de la cámara (llamar tras camera.update(), antes de dibujar)
+     */
+    public void setView(OrthographicCamera camera) {
+        float w = camera.viewportWidth * camera.zoom;
+        float h = camera.viewportHeight * camera.zoom;
+        viewLeft = camera.position.x - w * 0.5f;
+        viewBottom = camera.position.y - h * 0.5f;
+        viewRight = viewLeft + w;
+        viewTop = viewBottom + h;
+    }
 
-        // ===== 1. Dibujar fondo infinito =====
-        if (bg != null) {
-            float bgSize = tileW;
-            for (float x = -5000; x <= 5000; x += bgSize) {
-                for (float y = -5000; y <= 5000; y += bgSize) {
-                    batch.draw(bg, x, y, bgSize, bgSize);
-                }
+    public float getViewLeft() {
+        return viewLeft;
+    }
+
+    public float getViewRight() {
+        return viewRight;
+    }
+
+    public float getViewBottom() {
+        return viewBottom;
+    }
+
+    public float getViewTop() {
+        return viewTop;
+    }
+
+    /** El rectángulo (x, y, w, h) en coordenadas de mundo cae dentro de la zona visible */
+    public boolean isVisible(float x, float y, float w, float h) {
+        return x + w >= viewLeft && x <= viewRight && y + h >= viewBottom && y <= viewTop;
+    }
+
+    /**
+     * Dibuja el fondo infinito (entre batch.begin() y batch.end())
+     */
+    public void renderBackground(SpriteBatch batch) {
+        if (bg == null) return;
+        // un solo quad del tamaño de la vista; una baldosa por celda,
+        // y v crece hacia abajo en la textura, de ahí el signo
+        float u = viewLeft / tileW;
+        float u2 = viewRight / tileW;
+        float v = -viewBottom / tileH;
+        float v2 = -viewTop / tileH;
+        batch.draw(bg, viewLeft, viewBottom, viewRight - viewLeft, viewTop - viewBottom, u, v, u2, v2);
+    }
+
+    /**
+     * Prepara la capa estática del nivel: habitaciones, escaleras, cofres y llaves
+     * se guardan en la GPU por trozos de CHUNK x CHUNK celdas (llamar al generar el nivel).
+     * Los trozos se reparten en tantas SpriteCache como hagan falta para no pasar
+     * de MAX_CACHE_SPRITES imágenes en ninguna.
+     */
+    public void build(DungeonGraph graph) {
+        List<Room> rooms = graph.getRooms();
+        chunks.clear();
+        chunkList.clear();
+
+        for (int i = 0, n = rooms.size(); i < n; i++) {
+            Room r = rooms.get(i);
+            long k = chunkKey(chunkOf(r.x), chunkOf(r.y));
+            Chunk chunk = chunks.get(k);
+            if (chunk == null) {
+                chunk = new Chunk(chunkOf(r.x), chunkOf(r.y));
+                chunks.put(k, chunk);
+                chunkList.add(chunk);
             }
+            chunk.rooms.add(r);
         }
 
-        // ===== 2. Dibujar habitaciones =====
-        for (Room r : rooms) {
+        // trozos consecutivos en la misma caché mientras quepan
+        groupSprites.clear();
+        int used = 0;
+        for (int i = 0; i < chunkList.size; i++) {
+            Chunk chunk = chunkList.get(i);
+            int sprites = chunk.rooms.size * SPRITES_PER_ROOM;
+            if (used > 0 && used + sprites > MAX_CACHE_SPRITES) {
+                groupSprites.add(used);
+                used = 0;
+            }
+            chunk.cache = groupSprites.size;
+            used += sprites;
+        }
+        if (used > 0) groupSprites.add(used);
+        prepareCaches();
 
-            float px = r.x * tileW;
-            float py = r.y * tileH;
+        for (int i = 0; i < chunkList.size; i++) {
+            Chunk chunk = chunkList.get(i);
+            SpriteCache cache = caches.get(chunk.cache);
+            cache.beginCache();
+            addRooms(cache, chunk);
+            chunk.cacheId = cache.endCache();
+        }
+    }
 
-            TextureRegion reg = r.getRegion();
-            if (reg != null) {
-                batch.draw(reg, px, py, tileW, tileH);
+    /** Deja una caché vacía con sitio para cada grupo; reutiliza las del nivel anterior si caben */
+    private void prepareCaches() {
+        for (int g = 0; g < groupSprites.size; g++) {
+            int needed = groupSprites.get(g);
+            if (g < caches.size && cacheCapacities.get(g) >= needed) {
+                caches.get(g).clear();
+                continue;
+            }
+            if (g < caches.size) {
+                caches.get(g).dispose();
+                caches.set(g, new SpriteCache(needed, false));
+                cacheCapacities.set(g, needed);
             } else {
-                // fallback se podría dibujar rectángulo o nada
+                caches.add(new SpriteCache(needed, false));
+                cacheCapacities.add(needed);
             }
+        }
+        // las que sobran del nivel anterior
+        while (caches.size > groupSprites.size) {
+            caches.pop().dispose();
+            cacheCapacities.pop();
+        }
+    }
+
+    /**
+     * Rehace el trozo de la habitación tras un cambio de estado (llave recogida,
+     * cofre abierto). El trozo no gana imágenes, así que reutiliza su hueco.
+     */
+    public void invalidate(Room r) {
+        Chunk chunk = chunks.get(chunkKey(chunkOf(r.x), chunkOf(r.y)));
+        if (chunk == null) return;
+        SpriteCache cache = caches.get(chunk.cache);
+        cache.beginCache(chunk.cacheId);
+        addRooms(cache, chunk);
+        cache.endCache();
+    }
 
-            // ===== 3. Dibujar escalera si la hay =====
-            if (r.hasStairs && stairsTex != null) {
-                // Escalar las escaleras para que ocupen un espacio apropiado en el centro de la habitación
-                float stairSize = tileW / 4f; // Escaleras más grandes y visibles
-                float cx = px + tileW * 0.5f - stairSize * 0.5f;
-                float cy = py + tileH * 0.5f - stairSize * 0.5f;
-                batch.setColor(Color.WHITE);
-                batch.draw(stairsTex, cx, cy, stairSize, stairSize);
+    /**
+     * Dibuja los trozos visibles de la capa estática (fuera de batch.begin()/end())
+     */
+    public void renderRooms(Matrix4 projection) {
+        if (caches.size == 0) return;
+        int kx0 = chunkOf(DungeonGraph.cellOf(viewLeft, tileW));
+        int kx1 = chunkOf(DungeonGraph.cellOf(viewRight, tileW));
+        int ky0 = chunkOf(DungeonGraph.cellOf(viewBottom, tileH));
+        int ky1 = chunkOf(DungeonGraph.cellOf(viewTop, tileH));
+
+        for (int i = 0; i < caches.size; i++) {
+            caches.get(i).setProjectionMatrix(projection);
+        }
+        int visible = (kx1 - kx0 + 1) * (ky1 - ky0 + 1);
+        if (visible <= chunkList.size) {
+            // buscar por trozo en el índice
+            for (int kx = kx0; kx <= kx1; kx++) {
+                for (int ky = ky0; ky <= ky1; ky++) {
+                    Chunk chunk = chunks.get(chunkKey(kx, ky));
+                    if (chunk != null) draw(chunk);
+                }
             }
-            
-            // ===== 4. Dibujar cofre si lo hay =====
-            if (r.hasChest) {
-                Texture chestTex = r.chestOpened ? chestOpenTex : chestCloseTex;
-                if (chestTex != null) {
-                    // Cofre más pequeño que las escaleras y posicionado en una esquina
-                    float chestSize = tileW / 6f;
-                    float cx = px + tileW * 0.7f - chestSize * 0.5f;
-                    float cy = py + tileH * 0.7f - chestSize * 0.5f;
-                    batch.setColor(Color.WHITE);
-                    batch.draw(chestTex, cx, cy, chestSize, chestSize);
+        } else {
+            // con mucho zoom hay más trozos visibles que trozos: recorrer la lista
+            for (int i = 0; i < chunkList.size; i++) {
+                Chunk chunk = chunkList.get(i);
+                if (chunk.x >= kx0 && chunk.x <= kx1 && chunk.y >= ky0 && chunk.y <= ky1) {
+                    draw(chunk);
                 }
             }
-            
-            // ===== 5. Dibujar llave si la hay y no ha sido recolectada =====
-            if (r.hasKey && !r.keyCollected && keyTex != null) {
-                float keySize = tileW / 8f;
-                float kx = px + tileW * 0.3f - keySize * 0.5f;
-                float ky = py + tileH * 0.3f - keySize * 0.5f;
-                batch.setColor(Color.WHITE);
-                batch.draw(keyTex, kx, ky, keySize, keySize);
+        }
+        if (drawing >= 0) {
+            caches.get(drawing).end();
+            drawing = -1;
+        }
+    }
+
+    /** Dibuja el trozo; cambia de caché solo si el trozo está en otra */
+    private void draw(Chunk chunk) {
+        if (chunk.cache != drawing) {
+            if (drawing >= 0) caches.get(drawing).end();
+            drawing = chunk.cache;
+            caches.get(drawing).begin();
+        }
+        caches.get(drawing).draw(chunk.cacheId);
+    }
+
+    private void addRooms(SpriteCache cache, Chunk chunk) {
+        cache.setColor(Color.WHITE);
+        for (int i = 0; i < chunk.rooms.size; i++) {
+            addRoom(cache, chunk.rooms.get(i));
+        }
+    }
+
+    private static int chunkOf(int cell) {
+        return Math.floorDiv(cell, CHUNK);
+    }
+
+    private static long chunkKey(int x, int y) {
+        return (((long) x) << 32) ^ (y & 0xffffffffL);
+    }
+
+    private void addRoom(SpriteCache cache, Room r) {
+        float px = r.x * tileW;
+        float py = r.y * tileH;
+
+        TextureRegion reg = r.getRegion();
+        if (reg != null) {
+            Resources.add(cache, reg, px, py, tileW, tileH);
+        } else {
+            // fallback se podría dibujar rectángulo o nada
+        }
+
+        // ===== 3. Dibujar escalera si la hay =====
+        if (r.hasStairs && stairsReg != null) {
+            // Escalar las escaleras para que ocupen un espacio apropiado en el centro de la habitación
+            float stairSize = tileW / 4f; // Escaleras más grandes y visibles
+            float cx = px + tileW * 0.5f - stairSize * 0.5f;
+            float cy = py + tileH * 0.5f - stairSize * 0.5f;
+            Resources.add(cache, stairsReg, cx, cy, stairSize, stairSize);
+        }
+        
+        // ===== 4. Dibujar cofre si lo hay =====
+        if (r.hasChest) {
+            TextureRegion chestReg = r.chestOpened ? chestOpenReg : chestCloseReg;
+            if (chestReg != null) {
+                // Cofre más pequeño que las escaleras y posicionado en una esquina
+                float chestSize = tileW / 6f;
+                float cx = px + tileW * 0.7f - chestSize * 0.5f;
+                float cy = py + tileH * 0.7f - chestSize * 0.5f;
+                Resources.add(cache, chestReg, cx, cy, chestSize, chestSize);
             }
         }
+        
+        // ===== 5. Dibujar llave si la hay y no ha sido recolectada =====
+        if (r.hasKey && !r.keyCollected && keyReg != null) {
+            float keySize = tileW / 8f;
+            float kx = px + tileW * 0.3f - keySize * 0.5f;
+            float ky = py + tileH * 0.3f - keySize * 0.5f;
+            Resources.add(cache, keyReg, kx, ky, keySize, keySize);
+        }
     }
+
     public void dispose() {
+        for (int i = 0; i < caches.size; i++) {
+            caches.get(i).dispose();
+        }
+        caches.clear();
+        cacheCapacities.clear();
+        chunks.clear();
+        chunkList.clear();
         bg = null;
-        stairsTex = null;
-        chestCloseTex = null;
-        chestOpenTex = null;
-        keyTex = null;
+        stairsReg = null;
+        chestCloseReg = null;
+        chestOpenReg = null;
+        keyReg = null;
     }
 }
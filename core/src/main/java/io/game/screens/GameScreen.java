@@ -6,63 +6,115 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
 import io.game.GameMain;
-import io.game.components.Direction;
-import io.game.entities.AnimatedEntity;
+import io.game.debug.AllocationProbe;
+import io.game.debug.DebugDraw;
+import io.game.debug.PerfHud;
+import io.game.debug.PhaseTimer;
+import io.game.entities.EnemyGrid;
+import io.game.entities.EnemyStore;
 import io.game.entities.characters.Player;
 import io.game.entities.characters.Orc;
-import io.game.generator.DungeonGenerator;
-import io.game.maps.Room;
+import io.game.maps.DungeonCollision;
 import io.game.maps.DungeonGraph;
+import io.game.maps.Room;
+import io.game.maps.RoomActivation;
+import io.game.maps.RoomTracker;
 import io.game.managers.Resources;
+import io.game.managers.TextureHandle;
 import io.game.managers.RoomManager;
 import io.game.ui.GameOverScreen;
 import io.game.ui.HealthBar;
+import io.game.ui.Minimap;
 import io.game.ui.PauseMenu;
+import io.game.world.BotController;
+import io.game.world.InputCommand;
+import io.game.world.InputRecorder;
+import io.game.world.World;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.FileOutputStream;
+import java.io.IOException;
 
 public class GameScreen implements Screen {
 
-    private static final int MAX_DUNGEONS = 5;
+    /** Máximo de pasos por frame; si el juego va más lento se descarta el tiempo sobrante */
+    private static final int MAX_STEPS_PER_FRAME = 5;
 
     private SpriteBatch batch;
+    // simulación (sin gráficos); la pantalla la dibuja y le pasa el teclado
+    private World world;
     private Player player;
-    private List<Orc> enemies;
+    private EnemyStore enemies;
+    private final KeyboardInput keyboard = new KeyboardInput();
+    private final InputCommand command = new InputCommand();
+    // piloto automático (F1 o -Dgame.autopilot=true)
+    private BotController autopilot;
+    private boolean autopilotOn = Boolean.getBoolean("game.autopilot");
+    // grabación de la partida (-Dgame.record=archivo): abierta mientras se ve esta
+    // pantalla y cerrada (con su resumen) al salir al menú; null si no se graba
+    private String recordPath = System.getProperty("game.record");
+    private InputRecorder recorder;
+    private boolean recordedBefore;
+    // reinicio hecho con la grabación cerrada (desde el menú): se graba al reabrirla
+    private boolean restartUnrecorded;
 
-    private DungeonGenerator generator;
     private DungeonRenderer renderer;
-    private List<Room> dungeon;
-    private DungeonGraph graph;
+    private final DepthOrder depthOrder = new DepthOrder();
+    // cadáveres que se ven en este frame (índices de corpseX/corpseY)
+    private final IntArray visibleCorpses = new IntArray();
+    // el mundo se dibuja a menor resolución si el frame no llega a tiempo
+    private ResolutionScaler scaler;
 
     private OrthographicCamera camera;
     private ScreenViewport viewport;
 
     private float tileW, tileH;
-    private int level = 1;
+    // tiempo real pendiente de simular (siempre < STEP al terminar el frame)
+    private float accumulator = 0f;
 
     private Music gameMusic;
     private PauseMenu pauseMenu;
     private final GameMain game;
     private HealthBar healthBar;
+    private Minimap minimap;
     private GameOverScreen gameOverScreen;
     private com.badlogic.gdx.graphics.g2d.BitmapFont uiFont;
+    private TextureHandle keyIcon;
+    private TextureHandle flaskIcon;
+
+    // textos del inventario: solo se rehacen cuando cambia el contador
+    private final StringBuilder labelText = new StringBuilder();
+    private final GlyphLayout keyLabel = new GlyphLayout();
+    private final GlyphLayout flaskLabel = new GlyphLayout();
+    private int shownKeys = -1;
+    private int shownFlasks = -1;
+
+    private final AllocationProbe allocationProbe = new AllocationProbe();
+
+    // HUD de rendimiento (F3) con las fases de la simulación y las del dibujo
+    private static final int PHASE_DUNGEON = 0;
+    private static final int PHASE_ENTITIES = 1;
+    private static final int PHASE_UI = 2;
+    private final PhaseTimer renderPhases = new PhaseTimer("dibujo", "dibujo mazmorra", "dibujo entidades", "dibujo UI");
+    private PerfHud perfHud;
 
     public GameScreen(GameMain game) {
         this.game = game;
         this.batch = game.batch;
 
         Player.loadTextures();
-        player = new Player();
         
         // Cargar texturas de enemigos
         Orc.loadTextures();
-        enemies = new ArrayList<>();
+        // -Dgame.sharedClocks=false: cada orco anima con su propio reloj
+        Orc.setSharedClocks(Boolean.parseBoolean(System.getProperty("game.sharedClocks", "true")));
 
         // Load rooms
         RoomManager.load();
@@ -73,31 +125,82 @@ public class GameScreen implements Screen {
         tileW = screenW / roomsVisibleX;
         tileH = tileW;
 
-        player.size.set(tileW / 7f, tileH / 7f);
-
         // Load dungeon textures
         Resources.loadTexture("background", "graphics/tilesets/dungeons_tilesets");
         Resources.loadTexture("down_stairs", "graphics/sprites/world_objects");
         Resources.loadTexture("chest_close", "graphics/sprites/world_objects");
         Resources.loadTexture("chest_open", "graphics/sprites/world_objects");
-        Resources.loadTexture("key1", "graphics/sprites/objects");
-        Resources.loadTexture("flasks_1_1", "graphics/sprites/objects");
+        keyIcon = Resources.loadTexture("key1", "graphics/sprites/objects");
+        flaskIcon = Resources.loadTexture("flasks_1_1", "graphics/sprites/objects");
         Resources.finish();
 
         renderer = new DungeonRenderer(tileW, tileH);
 
+        // -Dgame.seed=N repite una partida concreta; por defecto una semilla nueva cada vez
+        long seed = Long.getLong("game.seed", System.nanoTime());
+        world = new World(tileW, tileH, seed);
+        autopilot = new BotController(seed);
+        // minimapa en la esquina inferior derecha
+        minimap = new Minimap(Gdx.graphics.getWidth() - 20, 20, 220, 220);
+        perfHud = new PerfHud(world.getPhaseTimer(), renderPhases);
+        player = world.getPlayer();
+        enemies = world.getEnemies();
+
+        // avisar de lo que hay al entrar en una habitación
+        world.getRoomTracker().addListener(new RoomTracker.Listener() {
+            @Override
+            public void onEnter(Room room) {
+                announceInteractions(room);
+                minimap.setCurrent(room);
+            }
+
+            @Override
+            public void onExit(Room room) {
+            }
+        });
+        world.addListener(new World.Listener() {
+            @Override
+            public void onLevelStart(int level) {
+                accumulator = 0f;
+
+                // Ocultar game over si está visible
+                if (gameOverScreen != null && gameOverScreen.isVisible()) {
+                    gameOverScreen.hide();
+                }
+
+                // capa estática del nivel nuevo
+                renderer.build(world.getGraph());
+                minimap.build(world.getGraph(), world.getRoomTracker().getCurrent());
+                depthOrder.reset();
+
+                // cambiar de nivel reserva memoria: la sonda vuelve a calentar
+                allocationProbe.reset();
+
+                // center camera on player
+                camera.position.set(player.position.x, player.position.y, 0);
+                camera.update();
+            }
+
+            @Override
+            public void onRoomChanged(Room room) {
+                renderer.invalidate(room);
+                minimap.update(room);
+            }
+
+            @Override
+            public void onRoomDiscovered(Room room) {
+                minimap.update(room);
+            }
+        });
+
         // setup camera and viewport
         camera = new OrthographicCamera();
         viewport = new ScreenViewport(camera);
         viewport.update((int) screenW, (int) Gdx.graphics.getHeight(), true);
+        scaler = new ResolutionScaler((int) screenW, Gdx.graphics.getHeight());
 
         // generate first dungeon
-        generator = new DungeonGenerator();
-        regenerate(level);
-
-        // center camera on player initially
-        camera.position.set(player.position.x, player.position.y, 0);
-        camera.update();
+        world.start(1);
 
         //musica
         gameMusic = Gdx.audio.newMusic(Gdx.files.internal("audio/music/S2.mp3"));
@@ -128,448 +231,306 @@ public class GameScreen implements Screen {
         uiFont.setColor(Color.WHITE);
     }
 
-    private void regenerate(int newLevel) {
-        this.level = newLevel;
-
-        // generate into generator.graph (generator clears graph internally)
-        generator.generate(level);
-        graph = generator.getGraph();
-        dungeon = new ArrayList<>(graph.getRooms());
-
-        // put player in the start room (0,0) center
-        player.position.set(0f + tileW * 0.5f, 0f + tileH * 0.5f);
-        player.movement.set(0f, 0f);
-        
-        // Resetear llaves al cambiar de nivel
-        player.resetKeys();
-        
-        // Ocultar game over si está visible
-        if (gameOverScreen != null && gameOverScreen.isVisible()) {
-            gameOverScreen.hide();
-        }
-        
-        // Generar enemigos aleatoriamente en las habitaciones
-        generateEnemies();
-
-        // center camera on player
-        camera.position.set(player.position.x, player.position.y, 0);
-        camera.update();
-    }
-    
     /**
      * Método público para reiniciar el juego desde el nivel 1
      */
     public void restart() {
         // Restaurar la vida completa al reiniciar desde game over
-        player.health.heal(player.health.getMaxHealth());
-        regenerate(1);
+        if (recorder != null) {
+            try {
+                recorder.recordRestart();
+            } catch (IOException e) {
+                stopRecording(e);
+            }
+        } else if (recordedBefore) {
+            restartUnrecorded = true;
+        }
+        world.restart();
     }
 
     @Override
     public void render(float delta) {
+        allocationProbe.begin();
+        scaler.frameStart();
+
         // Detectar tecla ESC para pausar/despausar
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             pauseMenu.toggle();
         }
+
+        // F1: activar/desactivar el piloto automático
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F1)) {
+            autopilotOn = !autopilotOn;
+            System.out.println("Piloto automático " + (autopilotOn ? "activado" : "desactivado"));
+        }
+
+        // F2: dibujo de depuración (colisiones, niveles de simulación, camino del piloto)
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            DebugDraw.toggle();
+        }
+
+        // F3: panel de rendimiento
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            perfHud.toggle();
+        }
         
-        // Verificar si el jugador murió
-        if (player.health.isDead() && !gameOverScreen.isVisible()) {
+        // Verificar si el jugador murió o terminó el último nivel
+        if (world.isOver() && !gameOverScreen.isVisible()) {
             gameOverScreen.show();
         }
         
         ScreenUtils.clear(Color.BLACK);
 
-        // move camera with player
-        camera.position.set(player.position.x, player.position.y, 0);
-        camera.update();
-
-        viewport.apply();
-        batch.setProjectionMatrix(camera.combined);
-
         // Solo actualizar el juego si el menú de pausa y game over no están visibles
         if (!pauseMenu.isVisible() && !gameOverScreen.isVisible()) {
-            // update player with collision
-            updatePlayerWithCollision(delta);
-            
-            // Actualizar enemigos
-            updateEnemies(delta);
-            
-            // Resolver colisiones entre entidades (empujar para evitar solapamiento)
-            resolveEntityCollisions();
-            
-            // Verificar combate entre jugador y enemigos
-            checkCombat();
-
-            // check if player stands over a room with stairs and pressed E
-            Room current = getRoomAtPlayer();
-            if (current != null && player.wantsNextLevel()) {
-                // Verificar si hay una llave en la habitación
-                if (current.hasKey && !current.keyCollected) {
-                    current.keyCollected = true;
-                    player.addKey();
-                    System.out.println("¡Llave recogida! Total: " + player.getKeys());
-                }
-                // Verificar si hay un cofre cerrado en la habitación
-                else if (current.hasChest && !current.chestOpened) {
-                    if (player.useKey()) {
-                        current.chestOpened = true;
-                        // Dar frascos al abrir el cofre (1-3 frascos aleatorios)
-                        int flasksFound = 1 + (int)(Math.random() * 3);
-                        for (int i = 0; i < flasksFound; i++) {
-                            player.addFlask();
-                        }
-                        System.out.println("¡Cofre abierto! Encontraste " + flasksFound + " flask(s). Total: " + player.getFlasks() + " - Llaves restantes: " + player.getKeys());
-                    } else {
-                        System.out.println("¡Necesitas una llave para abrir el cofre!");
+            keyboard.poll();
+
+            // Simular a paso fijo con el tiempo acumulado; como mucho MAX_STEPS_PER_FRAME
+            // pasos por frame para que un frame lento no provoque una espiral de pasos
+            accumulator += delta;
+            int steps = 0;
+            while (accumulator >= World.STEP && steps < MAX_STEPS_PER_FRAME) {
+                accumulator -= World.STEP;
+                steps++;
+                keyboard.fill(command);
+                if (autopilotOn) autopilot.think(world, command);
+                if (recorder != null) {
+                    try {
+                        recorder.record(command);
+                    } catch (IOException e) {
+                        stopRecording(e);
                     }
                 }
-                // Verificar escaleras
-                else if (current.hasStairs) {
-                    if (level >= MAX_DUNGEONS) {
-                        gameOverScreen.show();
-                    } else {
-                        regenerate(level + 1);
-                    }
-                    return; // skip one frame to avoid input repeat
+                if (world.step(World.STEP, command)) {
+                    // nivel nuevo (o fin de partida): no se simulan más pasos en este frame
+                    // y se dibuja ya el nivel nuevo; las pulsaciones se consumieron en fill(),
+                    // así que no se repiten en el primer paso del nivel
+                    accumulator = 0f;
+                    break;
                 }
             }
+            if (steps == MAX_STEPS_PER_FRAME && accumulator > World.STEP) {
+                accumulator = World.STEP;
+            }
         }
 
-        // render
+        // fracción del paso transcurrida: el dibujo interpola entre el paso anterior y el actual
+        float alpha = accumulator / World.STEP;
+
+        // move camera with player
+        camera.position.set(player.renderX(alpha), player.renderY(alpha), 0);
+        camera.update();
+
+        viewport.apply();
+        batch.setProjectionMatrix(camera.combined);
+
+        // preparar en CPU lo que se va a dibujar: zona visible, cadáveres y orcos de las
+        // habitaciones que se ven, y orcos y jugador por profundidad (los de más abajo
+        // tapan a los de detrás). Va antes de scaler.begin(), fuera de lo que mide.
+        renderPhases.begin();
+        renderer.setView(camera);
+        collectVisibleCorpses();
+        Orc.updateClocks((world.getTick() + alpha) * World.STEP);
+        depthOrder.begin();
+        addVisibleEnemies(alpha);
+        depthOrder.update(enemies, player.renderY(alpha), alpha);
+        renderPhases.lap(PHASE_ENTITIES);
+
+        // render: fondo, capa estática de la mazmorra (SpriteCache) y encima lo dinámico,
+        // todo a la escala de ResolutionScaler; la UI después, a resolución nativa
+        scaler.begin();
         batch.begin();
-        renderer.render(batch, dungeon);
-        
-        // DEBUG: Dibujar colisiones (descomentar para visualizar)
-        // renderCollisionDebug(batch);
-        
-        // Renderizar enemigos
-        for (Orc enemy : enemies) {
-            enemy.render(batch);
+        renderer.renderBackground(batch);
+        batch.end();
+        renderer.renderRooms(camera.combined);
+        renderPhases.lap(PHASE_DUNGEON);
+
+        batch.begin();
+        // cadáveres debajo de todo
+        for (int k = 0; k < visibleCorpses.size; k++) {
+            Orc.renderCorpse(batch, enemies, visibleCorpses.get(k));
         }
-        
-        player.render(batch);
+        for (int k = 0; k < depthOrder.size(); k++) {
+            int i = depthOrder.get(k);
+            if (i == DepthOrder.PLAYER) {
+                player.render(batch, alpha);
+                continue;
+            }
+            Orc.render(batch, enemies, i, alpha);
+        }
+        batch.end();
+        scaler.end(batch, pauseMenu.getStage().getCamera().combined);
+        renderPhases.lap(PHASE_ENTITIES);
         
         // Renderizar UI (barra de vida) usando la cámara de UI
         batch.setProjectionMatrix(pauseMenu.getStage().getCamera().combined);
+        batch.begin();
         healthBar.render(batch, player.health, 20);
         
         // Renderizar contadores de llaves y frascos
         renderInventoryUI(batch);
+        minimap.render(batch);
         
         batch.end();
+        renderPhases.lap(PHASE_UI);
+
+        // DEBUG: figuras encoladas en este frame, de una vez y sin cortar el batch
+        if (DebugDraw.isEnabled()) {
+            queueDebugShapes(alpha);
+            DebugDraw.flush(camera.combined);
+        }
+
+        perfHud.setCounts(enemies.count, enemies.corpseCount, world.getGraph().size(), world.getLevel(),
+            world.getGenerationMillis());
+        perfHud.setResolutionScale(scaler.getScale());
+        perfHud.render(batch, pauseMenu.getStage().getCamera().combined, delta);
         
         // Renderizar menú de pausa sobre el juego
         pauseMenu.render(delta);
         
         // Renderizar game over sobre todo
         gameOverScreen.render(delta);
+
+        // la sonda y la parte de CPU del frame cubren todo, menús incluidos
+        scaler.frameEnd();
+        allocationProbe.end();
     }
     
     // ----------------------------
-    // Actualiza el jugador con detección de colisiones contra paredes
+    // Grabación de la partida (semilla + órdenes de cada paso) para
+    // reproducirla después con ReplayRunner
     // ----------------------------
-    private void updatePlayerWithCollision(float delta) {
-        // Guardar posición anterior
-        float oldX = player.position.x;
-        float oldY = player.position.y;
-        
-        // Actualizar jugador (calcula movimiento)
-        player.update(delta);
-        
-        // Si no hay movimiento, no hay colisión que verificar
-        if (player.movement.isZero()) {
-            return;
-        }
-        
-        // Verificar colisión y ajustar posición si es necesario
-        if (checkCollisionWithWalls()) {
-            // Colisión detectada, intentar movimiento en X solo
-            player.position.set(oldX, oldY);
-            player.position.x += player.movement.x * delta;
-            
-            if (checkCollisionWithWalls()) {
-                // Aún hay colisión, intentar solo Y
-                player.position.x = oldX;
-                player.position.y = oldY + player.movement.y * delta;
-                
-                if (checkCollisionWithWalls()) {
-                    // Colisión en ambos ejes, restaurar posición original
-                    player.position.set(oldX, oldY);
-                }
+    private void startRecording() {
+        if (recordPath == null || recordPath.isEmpty() || recorder != null) return;
+        try {
+            if (!recordedBefore) {
+                recorder = new InputRecorder(new FileOutputStream(recordPath), world);
+                recordedBefore = true;
+                System.out.println("Grabando partida en " + recordPath + " (semilla " + world.getSeed() + ")");
+            } else {
+                // otra sesión: sigue al final del archivo, desde el estado con que se cerró
+                recorder = InputRecorder.resume(new FileOutputStream(recordPath, true));
+                if (restartUnrecorded) recorder.recordRestart();
             }
+            restartUnrecorded = false;
+        } catch (IOException e) {
+            System.err.println("No se pudo grabar la partida en " + recordPath + ": " + e.getMessage());
+            recorder = null;
         }
     }
-    
-    // ----------------------------
-    // Verifica si el jugador colisiona con paredes de habitaciones
-    // ----------------------------
-    private boolean checkCollisionWithWalls() {
-        return checkEntityCollisionWithWalls(player);
+
+    /** Cierra la sesión de grabación con el resumen del mundo, que ReplayRunner comprueba */
+    private void closeRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.close(world);
+        } catch (IOException e) {
+            System.err.println("No se pudo cerrar la grabación: " + e.getMessage());
+        }
+        recorder = null;
     }
-    
+
+    private void stopRecording(IOException e) {
+        System.err.println("Grabación detenida: " + e.getMessage());
+        recorder = null;
+        // el archivo quedó a medias: no se siguen grabando sesiones en él
+        recordPath = null;
+    }
+
     // ----------------------------
-    // Verifica si una entidad (jugador o enemigo) colisiona con paredes
+    // Cadáveres en pantalla: solo se miran las celdas que toca la vista
+    // (ampliada por abajo y a la izquierda con el tamaño del sprite)
     // ----------------------------
-    private boolean checkEntityCollisionWithWalls(AnimatedEntity entity) {
-        // entity.position es la esquina inferior izquierda del sprite
-        // El hitbox será un rectángulo centrado en el sprite
-        float entityCenterX = entity.position.x + entity.size.x * 0.5f;
-        float entityCenterY = entity.position.y + entity.size.y * 0.5f;
-        // Hitbox: 40% del tamaño de la entidad (20% de radio = 40% de ancho)
-        float hitboxRadius = entity.size.x * 0.2f;
-        float px1 = entityCenterX - hitboxRadius;
-        float py1 = entityCenterY - hitboxRadius;
-        float px2 = entityCenterX + hitboxRadius;
-        float py2 = entityCenterY + hitboxRadius;
-        
-        // Verificar colisión con cada habitación
-        for (Room room : dungeon) {
-            float rx = room.x * tileW;
-            float ry = room.y * tileH;
-            
-            // Grosor de pared visible en sprites (aproximadamente 14% del tile)
-            float wallThickness = tileW * 0.14f;
-            // Ancho de la puerta (11% desde el centro = 22% apertura total)
-            float doorHalfWidth = tileW * 0.11f;
-            
-            // PARED NORTE (arriba) - borde interno
-            if (!room.hasDoor(Direction.N)) {
-                // Pared completa: desde borde interno hacia adentro
-                float wallInnerY = ry + tileH - wallThickness;
-                if (intersects(px1, py1, px2, py2,
-                              rx, wallInnerY, rx + tileW, ry + tileH)) {
-                    return true;
-                }
-            } else {
-                // Pared con puerta - dos segmentos a los lados (extendidos hasta el borde)
-                float centerX = rx + tileW * 0.5f;
-                float wallInnerY = ry + tileH - wallThickness;
-                // Segmento izquierdo (hasta el borde izquierdo completo)
-                if (intersects(px1, py1, px2, py2,
-                              rx, wallInnerY, centerX - doorHalfWidth, ry + tileH)) {
-                    return true;
-                }
-                // Segmento derecho (hasta el borde derecho completo)
-                if (intersects(px1, py1, px2, py2,
-                              centerX + doorHalfWidth, wallInnerY, rx + tileW, ry + tileH)) {
-                    return true;
+    private void collectVisibleCorpses() {
+        visibleCorpses.clear();
+        EnemyGrid cells = world.getCorpseCells();
+        float w = enemies.width, h = enemies.height;
+        int cx0 = DungeonGraph.cellOf(renderer.getViewLeft() - w, tileW);
+        int cx1 = DungeonGraph.cellOf(renderer.getViewRight(), tileW);
+        int cy0 = DungeonGraph.cellOf(renderer.getViewBottom() - h, tileW);
+        int cy1 = DungeonGraph.cellOf(renderer.getViewTop(), tileW);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = cells.bucket(cx, cy);
+                for (int k = cells.start(b), end = cells.end(b); k < end; k++) {
+                    int c = cells.entry(k);
+                    if (cells.cellX(c) != cx || cells.cellY(c) != cy) continue;
+                    if (!renderer.isVisible(enemies.corpseX[c], enemies.corpseY[c], w, h)) continue;
+                    visibleCorpses.add(c);
                 }
             }
-            
-            // PARED SUR (abajo) - borde interno
-            if (!room.hasDoor(Direction.S)) {
-                // Pared completa
-                float wallInnerY = ry + wallThickness;
-                if (intersects(px1, py1, px2, py2,
-                              rx, ry, rx + tileW, wallInnerY)) {
-                    return true;
-                }
-            } else {
-                // Pared con puerta - dos segmentos a los lados (extendidos hasta los bordes)
-                float centerX = rx + tileW * 0.5f;
-                float wallInnerY = ry + wallThickness;
-                // Segmento izquierdo (hasta el borde izquierdo completo)
-                if (intersects(px1, py1, px2, py2,
-                              rx, ry, centerX - doorHalfWidth, wallInnerY)) {
-                    return true;
-                }
-                // Segmento derecho (hasta el borde derecho completo)
-                if (intersects(px1, py1, px2, py2,
-                              centerX + doorHalfWidth, ry, rx + tileW, wallInnerY)) {
-                    return true;
-                }
-            }
-            
-            // PARED ESTE (derecha) - borde interno
-            if (!room.hasDoor(Direction.E)) {
-                // Pared completa
-                float wallInnerX = rx + tileW - wallThickness;
-                if (intersects(px1, py1, px2, py2,
-                              wallInnerX, ry, rx + tileW, ry + tileH)) {
-                    return true;
-                }
-            } else {
-                // Pared con puerta - dos segmentos arriba y abajo (extendidos hasta los bordes)
-                float centerY = ry + tileH * 0.5f;
-                float wallInnerX = rx + tileW - wallThickness;
-                // Segmento inferior (hasta el borde inferior completo)
-                if (intersects(px1, py1, px2, py2,
-                              wallInnerX, ry, rx + tileW, centerY - doorHalfWidth)) {
-                    return true;
-                }
-                // Segmento superior (hasta el borde superior completo)
-                if (intersects(px1, py1, px2, py2,
-                              wallInnerX, centerY + doorHalfWidth, rx + tileW, ry + tileH)) {
-                    return true;
-                }
-            }
-            
-            // PARED OESTE (izquierda) - borde interno
-            if (!room.hasDoor(Direction.O)) {
-                // Pared completa
-                float wallInnerX = rx + wallThickness;
-                if (intersects(px1, py1, px2, py2,
-                              rx, ry, wallInnerX, ry + tileH)) {
-                    return true;
-                }
-            } else {
-                // Pared con puerta - dos segmentos arriba y abajo (extendidos hasta los bordes)
-                float centerY = ry + tileH * 0.5f;
-                float wallInnerX = rx + wallThickness;
-                // Segmento inferior (hasta el borde inferior completo)
-                if (intersects(px1, py1, px2, py2,
-                              rx, ry, wallInnerX, centerY - doorHalfWidth)) {
-                    return true;
-                }
-                // Segmento superior (hasta el borde superior completo)
-                if (intersects(px1, py1, px2, py2,
-                              rx, centerY + doorHalfWidth, wallInnerX, ry + tileH)) {
-                    return true;
-                }
-            }
-            
-            // COLISIÓN CON COFRE (si existe en la habitación)
-            if (room.hasChest) {
-                float chestSize = tileW / 6f;
-                float chestX = rx + tileW * 0.7f - chestSize * 0.5f;
-                float chestY = ry + tileH * 0.7f - chestSize * 0.5f;
-                
-                // Hitbox del cofre (ligeramente más pequeño para mejor jugabilidad)
-                float chestHitboxSize = chestSize * 0.7f;
-                float chestCenterX = chestX + chestSize * 0.5f;
-                float chestCenterY = chestY + chestSize * 0.5f;
-                float cx1 = chestCenterX - chestHitboxSize * 0.5f;
-                float cy1 = chestCenterY - chestHitboxSize * 0.5f;
-                float cx2 = chestCenterX + chestHitboxSize * 0.5f;
-                float cy2 = chestCenterY + chestHitboxSize * 0.5f;
-                
-                if (intersects(px1, py1, px2, py2, cx1, cy1, cx2, cy2)) {
-                    return true;
+        }
+    }
+
+    // ----------------------------
+    // Orcos en pantalla al orden de dibujo: solo se miran las celdas que toca la
+    // vista, ampliada con el sprite y con lo que se mueve un orco entre el último
+    // paso (con el que se indexó) y la posición interpolada
+    // ----------------------------
+    private void addVisibleEnemies(float alpha) {
+        EnemyGrid cells = world.getEnemyCells();
+        float w = enemies.width, h = enemies.height;
+        int cx0 = DungeonGraph.cellOf(renderer.getViewLeft() - w * 2, tileW);
+        int cx1 = DungeonGraph.cellOf(renderer.getViewRight() + w, tileW);
+        int cy0 = DungeonGraph.cellOf(renderer.getViewBottom() - h * 2, tileW);
+        int cy1 = DungeonGraph.cellOf(renderer.getViewTop() + h, tileW);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = cells.bucket(cx, cy);
+                for (int k = cells.start(b), end = cells.end(b); k < end; k++) {
+                    int i = cells.entry(k);
+                    if (cells.cellX(i) != cx || cells.cellY(i) != cy) continue;
+                    if (!renderer.isVisible(enemies.renderX(i, alpha), enemies.renderY(i, alpha), w, h)) continue;
+                    depthOrder.add(i);
                 }
             }
         }
-        
-        return false;
-    }
-    
-    // Helper: verifica si dos rectángulos AABB se intersectan
-    private boolean intersects(float x1, float y1, float x2, float y2,
-                               float x3, float y3, float x4, float y4) {
-        return x1 < x4 && x2 > x3 && y1 < y4 && y2 > y3;
     }
-    
-    // DEBUG: Renderizar las cajas de colisión para visualizar dónde están
-    private void renderCollisionDebug(SpriteBatch batch) {
-        batch.end();
-        
-        // Usar ShapeRenderer para dibujar rectángulos
-        com.badlogic.gdx.graphics.glutils.ShapeRenderer shapeRenderer = 
-            new com.badlogic.gdx.graphics.glutils.ShapeRenderer();
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType.Line);
-        shapeRenderer.setColor(Color.RED);
-        
-        for (Room room : dungeon) {
-            float rx = room.x * tileW;
-            float ry = room.y * tileH;
-            float wallThickness = tileW * 0.14f;
-            float doorHalfWidth = tileW * 0.11f;
-            
-            // Dibujar paredes según tengan o no puertas (en borde interno)
-            // NORTE
-            if (!room.hasDoor(Direction.N)) {
-                float wallInnerY = ry + tileH - wallThickness;
-                shapeRenderer.rect(rx, wallInnerY, tileW, wallThickness);
-            } else {
-                float centerX = rx + tileW * 0.5f;
-                float wallInnerY = ry + tileH - wallThickness;
-                shapeRenderer.rect(rx, wallInnerY, centerX - doorHalfWidth - rx, wallThickness);
-                shapeRenderer.rect(centerX + doorHalfWidth, wallInnerY, rx + tileW - (centerX + doorHalfWidth), wallThickness);
-            }
-            
-            // SUR
-            if (!room.hasDoor(Direction.S)) {
-                shapeRenderer.rect(rx, ry, tileW, wallThickness);
-            } else {
-                float centerX = rx + tileW * 0.5f;
-                shapeRenderer.rect(rx, ry, centerX - doorHalfWidth - rx, wallThickness);
-                shapeRenderer.rect(centerX + doorHalfWidth, ry, rx + tileW - (centerX + doorHalfWidth), wallThickness);
-            }
-            
-            // ESTE
-            if (!room.hasDoor(Direction.E)) {
-                float wallInnerX = rx + tileW - wallThickness;
-                shapeRenderer.rect(wallInnerX, ry, wallThickness, tileH);
-            } else {
-                float centerY = ry + tileH * 0.5f;
-                float wallInnerX = rx + tileW - wallThickness;
-                shapeRenderer.rect(wallInnerX, ry, wallThickness, centerY - doorHalfWidth - ry);
-                shapeRenderer.rect(wallInnerX, centerY + doorHalfWidth, wallThickness, ry + tileH - (centerY + doorHalfWidth));
-            }
-            
-            // OESTE
-            if (!room.hasDoor(Direction.O)) {
-                float wallInnerX = rx + wallThickness;
-                shapeRenderer.rect(rx, ry, wallThickness, tileH);
-            } else {
-                float centerY = ry + tileH * 0.5f;
-                float wallInnerX = rx + wallThickness;
-                shapeRenderer.rect(rx, ry, wallThickness, centerY - doorHalfWidth - ry);
-                shapeRenderer.rect(rx, centerY + doorHalfWidth, wallThickness, ry + tileH - (centerY + doorHalfWidth));
-            }
-            
-            // Dibujar hitbox del cofre si existe
-            if (room.hasChest) {
-                shapeRenderer.setColor(Color.YELLOW);
-                float chestSize = tileW / 6f;
-                float chestX = rx + tileW * 0.7f - chestSize * 0.5f;
-                float chestY = ry + tileH * 0.7f - chestSize * 0.5f;
-                
-                float chestHitboxSize = chestSize * 0.7f;
-                float chestCenterX = chestX + chestSize * 0.5f;
-                float chestCenterY = chestY + chestSize * 0.5f;
-                float cx1 = chestCenterX - chestHitboxSize * 0.5f;
-                float cy1 = chestCenterY - chestHitboxSize * 0.5f;
-                
-                shapeRenderer.rect(cx1, cy1, chestHitboxSize, chestHitboxSize);
-                shapeRenderer.setColor(Color.RED); // restaurar color
+
+    // ----------------------------
+    // DEBUG: encola paredes y cofres, nivel de simulación de cada habitación,
+    // hitboxes y el camino del piloto automático, solo de lo que cae en pantalla
+    // ----------------------------
+    private void queueDebugShapes(float alpha) {
+        DungeonCollision collision = world.getCollision();
+        RoomActivation activation = world.getActivation();
+        DungeonGraph graph = world.getGraph();
+        int cx0 = DungeonGraph.cellOf(renderer.getViewLeft(), tileW);
+        int cx1 = DungeonGraph.cellOf(renderer.getViewRight(), tileW);
+        int cy0 = DungeonGraph.cellOf(renderer.getViewBottom(), tileH);
+        int cy1 = DungeonGraph.cellOf(renderer.getViewTop(), tileH);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                Room room = graph.getRoom(cx, cy);
+                if (room == null) continue;
+                activation.debugDraw(room, tileW, tileH);
+                collision.debugDraw(room);
             }
         }
-        
-        // Dibujar hitbox del jugador (centrado en el sprite)
-        shapeRenderer.setColor(Color.GREEN);
-        float playerCenterX = player.position.x + player.size.x * 0.5f;
-        float playerCenterY = player.position.y + player.size.y * 0.5f;
-        float hitboxRadius = player.size.x * 0.2f;
-        shapeRenderer.rect(playerCenterX - hitboxRadius, playerCenterY - hitboxRadius, 
-                          hitboxRadius * 2, hitboxRadius * 2);
-        
-        // Dibujar hitboxes de los enemigos
-        shapeRenderer.setColor(Color.RED);
-        for (Orc enemy : enemies) {
-            float enemyCenterX = enemy.position.x + enemy.size.x * 0.5f;
-            float enemyCenterY = enemy.position.y + enemy.size.y * 0.5f;
-            shapeRenderer.rect(enemyCenterX - hitboxRadius, enemyCenterY - hitboxRadius, 
-                              hitboxRadius * 2, hitboxRadius * 2);
+
+        DungeonCollision.debugDrawHitbox(player.renderX(alpha), player.renderY(alpha),
+            player.size.x, player.size.y, Color.GREEN);
+        for (int i = 0; i < enemies.count; i++) {
+            float ex = enemies.renderX(i, alpha);
+            float ey = enemies.renderY(i, alpha);
+            if (!renderer.isVisible(ex, ey, enemies.width, enemies.height)) continue;
+            DungeonCollision.debugDrawHitbox(ex, ey, enemies.width, enemies.height, Color.RED);
         }
-        
-        shapeRenderer.end();
-        batch.begin();
-    }
 
-    private Room getRoomAtPlayer() {
-        float px = player.position.x;
-        float py = player.position.y;
+        if (autopilotOn) autopilot.debugDraw(world);
+    }
 
-        for (Room r : dungeon) {
-            float rx = r.x * tileW;
-            float ry = r.y * tileH;
-            if (px >= rx && px <= rx + tileW &&
-                py >= ry && py <= ry + tileH) {
-                return r;
-            }
+    // ----------------------------
+    // Avisa de lo que hay en una habitación al entrar en ella
+    // ----------------------------
+    private void announceInteractions(Room room) {
+        if (room.hasKey && !room.keyCollected) {
+            System.out.println("Hay una llave en esta habitación (E para recoger)");
+        } else if (room.hasChest && !room.chestOpened) {
+            System.out.println("Hay un cofre en esta habitación (E para abrir)");
+        } else if (room.hasStairs) {
+            System.out.println("Escaleras encontradas (E para bajar)");
         }
-        return null;
     }
     
     // ----------------------------
@@ -577,207 +538,70 @@ public class GameScreen implements Screen {
     // ----------------------------
     private void renderInventoryUI(SpriteBatch batch) {
         // Renderizar icono y contador de llaves
-        com.badlogic.gdx.graphics.Texture keyTex = Resources.getTexture("key1", "graphics/sprites/objects");
+        TextureRegion keyTex = keyIcon.getRegion();
         if (keyTex != null) {
             float iconSize = 40;
             float keyX = 20;
             float keyY = Gdx.graphics.getHeight() - 140;
             batch.setColor(Color.WHITE);
-            batch.draw(keyTex, keyX, keyY, iconSize, iconSize);
-            uiFont.draw(batch, "x" + player.getKeys(), keyX + iconSize + 10, keyY + iconSize * 0.7f);
+            Resources.draw(batch, keyTex, keyX, keyY, iconSize, iconSize);
+            if (player.getKeys() != shownKeys) {
+                shownKeys = player.getKeys();
+                labelText.setLength(0);
+                labelText.append('x').append(shownKeys);
+                keyLabel.setText(uiFont, labelText);
+            }
+            uiFont.draw(batch, keyLabel, keyX + iconSize + 10, keyY + iconSize * 0.7f);
         }
         
         // Renderizar icono y contador de frascos
-        com.badlogic.gdx.graphics.Texture flaskTex = Resources.getTexture("flasks_1_1", "graphics/sprites/objects");
+        TextureRegion flaskTex = flaskIcon.getRegion();
         if (flaskTex != null) {
             float iconSize = 40;
             float flaskX = 20;
             float flaskY = Gdx.graphics.getHeight() - 200;
             batch.setColor(Color.WHITE);
-            batch.draw(flaskTex, flaskX, flaskY, iconSize, iconSize);
-            uiFont.draw(batch, "x" + player.getFlasks() + " (Q)", flaskX + iconSize + 10, flaskY + iconSize * 0.7f);
-        }
-    }
-    
-    // ----------------------------
-    // Genera enemigos aleatoriamente en las habitaciones (excepto la inicial)
-    // ----------------------------
-    private void generateEnemies() {
-        enemies.clear();
-        
-        // Número de enemigos basado en el nivel
-        int enemiesPerRoom = 1 + (level / 3); // más enemigos en niveles altos
-        
-        for (Room room : dungeon) {
-            // No generar enemigos en la habitación inicial (0,0)
-            if (room.x == 0 && room.y == 0) continue;
-            
-            // Probabilidad de que aparezcan enemigos (80%)
-            if (Math.random() < 0.8) {
-                int numEnemies = (int)(Math.random() * enemiesPerRoom) + 1;
-                
-                for (int i = 0; i < numEnemies; i++) {
-                    // Posición en el centro de la habitación
-                    float centerX = room.x * tileW + tileW * 0.5f;
-                    float centerY = room.y * tileH + tileH * 0.5f;
-                    
-                    // Pequeña variación aleatoria desde el centro (±20% del tamaño)
-                    float offsetX = (float)(Math.random() - 0.5) * tileW * 0.4f;
-                    float offsetY = (float)(Math.random() - 0.5) * tileH * 0.4f;
-                    
-                    float x = centerX + offsetX;
-                    float y = centerY + offsetY;
-                    
-                    Orc orc = new Orc(x, y);
-                    orc.size.set(tileW / 7f, tileH / 7f);
-                    enemies.add(orc);
-                }
+            Resources.draw(batch, flaskTex, flaskX, flaskY, iconSize, iconSize);
+            if (player.getFlasks() != shownFlasks) {
+                shownFlasks = player.getFlasks();
+                labelText.setLength(0);
+                labelText.append('x').append(shownFlasks).append(" (Q)");
+                flaskLabel.setText(uiFont, labelText);
             }
+            uiFont.draw(batch, flaskLabel, flaskX + iconSize + 10, flaskY + iconSize * 0.7f);
         }
     }
     
-    // ----------------------------
-    // Actualiza la IA de todos los enemigos con colisiones
-    // ----------------------------
-    private void updateEnemies(float delta) {
-        for (Orc enemy : enemies) {
-            // Si el enemigo está muerto, solo actualizar su animación
-            if (enemy.health.isDead()) {
-                enemy.update(delta);
-                continue;
-            }
-            
-            // Guardar posición anterior
-            float oldX = enemy.position.x;
-            float oldY = enemy.position.y;
-            
-            // Actualizar IA y movimiento
-            enemy.updateAI(delta, player.position);
-            enemy.update(delta);
-            
-            // Si no hay movimiento, no verificar colisión
-            if (enemy.movement.isZero()) {
-                continue;
-            }
-            
-            // Verificar colisión con paredes
-            if (checkEntityCollisionWithWalls(enemy)) {
-                // Colisión detectada, intentar movimiento en X solo
-                enemy.position.set(oldX, oldY);
-                enemy.position.x += enemy.movement.x * delta;
-                
-                if (checkEntityCollisionWithWalls(enemy)) {
-                    // Aún hay colisión, intentar solo Y
-                    enemy.position.x = oldX;
-                    enemy.position.y = oldY + enemy.movement.y * delta;
-                    
-                    if (checkEntityCollisionWithWalls(enemy)) {
-                        // Colisión en ambos ejes, restaurar posición original
-                        enemy.position.set(oldX, oldY);
-                    }
-                }
-            }
-        }
-    }
-    
-    // ----------------------------
-    // Resuelve colisiones entre entidades (jugador y enemigos)
-    // Empuja las entidades para evitar que se solapen
-    // ----------------------------
-    private void resolveEntityCollisions() {
-        float collisionRadius = player.size.x * 0.3f; // Radio de colisión
-        
-        // Colisión entre jugador y enemigos
-        for (Orc enemy : enemies) {
-            if (enemy.health.isDead()) continue;
-            
-            float dx = player.position.x - enemy.position.x;
-            float dy = player.position.y - enemy.position.y;
-            float distance = (float) Math.sqrt(dx * dx + dy * dy);
-            
-            if (distance < collisionRadius && distance > 0) {
-                // Las entidades están solapadas, empujar
-                float overlap = collisionRadius - distance;
-                float pushX = (dx / distance) * overlap * 0.5f;
-                float pushY = (dy / distance) * overlap * 0.5f;
-                
-                // Empujar ambas entidades en direcciones opuestas
-                player.position.x += pushX;
-                player.position.y += pushY;
-                enemy.position.x -= pushX;
-                enemy.position.y -= pushY;
-            }
-        }
-        
-        // Colisiones entre enemigos
-        for (int i = 0; i < enemies.size(); i++) {
-            Orc enemy1 = enemies.get(i);
-            if (enemy1.health.isDead()) continue;
-            
-            for (int j = i + 1; j < enemies.size(); j++) {
-                Orc enemy2 = enemies.get(j);
-                if (enemy2.health.isDead()) continue;
-                
-                float dx = enemy1.position.x - enemy2.position.x;
-                float dy = enemy1.position.y - enemy2.position.y;
-                float distance = (float) Math.sqrt(dx * dx + dy * dy);
-                
-                if (distance < collisionRadius && distance > 0) {
-                    // Empujar enemigos
-                    float overlap = collisionRadius - distance;
-                    float pushX = (dx / distance) * overlap * 0.5f;
-                    float pushY = (dy / distance) * overlap * 0.5f;
-                    
-                    enemy1.position.x += pushX;
-                    enemy1.position.y += pushY;
-                    enemy2.position.x -= pushX;
-                    enemy2.position.y -= pushY;
-                }
-            }
-        }
-    }
-    
-    // ----------------------------
-    // Verifica combate entre jugador y enemigos
-    // ----------------------------
-    private void checkCombat() {
-        // Verificar si el jugador golpea a enemigos
-        for (Orc enemy : enemies) {
-            if (enemy.health.isDead()) continue;
-            
-            if (player.canDamageEnemy(enemy.position)) {
-                enemy.takeDamage(player.combat.getDamage());
-            }
-        }
-        
-        // Verificar si enemigos golpean al jugador
-        for (Orc enemy : enemies) {
-            if (enemy.health.isDead()) continue;
-            
-            if (enemy.canDamagePlayer(player.position)) {
-                player.takeDamage(enemy.combat.getDamage());
-            }
-        }
-    }
-
     @Override public void resize(int width, int height) { 
         viewport.update(width, height);
+        scaler.resize(width, height);
         pauseMenu.resize(width, height);
         gameOverScreen.resize(width, height);
+        minimap.setPosition(width - 20, 20);
     }
     @Override public void show() { 
         gameMusic.play(); 
         Gdx.input.setInputProcessor(null); 
+        startRecording();
+    }
+    @Override public void hide() {
+        gameMusic.stop();
+        closeRecording();
     }
-    @Override public void hide() {gameMusic.stop();}
     @Override public void pause() {}
     @Override public void resume() {}
     @Override public void dispose() {
         if (gameMusic != null) gameMusic.dispose();
         if (renderer != null) renderer.dispose();
+        if (scaler != null) scaler.dispose();
+        if (minimap != null) minimap.dispose();
+        closeRecording();
+        if (world != null) world.dispose();
         if (pauseMenu != null) pauseMenu.dispose();
         if (gameOverScreen != null) gameOverScreen.dispose();
         if (uiFont != null) uiFont.dispose();
+        DebugDraw.dispose();
+        if (perfHud != null) perfHud.dispose();
         if (viewport != null) viewport = null;
         if (camera != null) camera = null;
     }
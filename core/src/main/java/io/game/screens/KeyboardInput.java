@@ -0,0 +1,37 @@
+package io.game.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+import io.game.world.InputCommand;
+
+/**
+ * Traduce el teclado a órdenes de la simulación.
+ *
+ * Las pulsaciones (ataque, frasco, interactuar) se recogen una vez por frame
+ * con poll() y se entregan en el siguiente paso con fill(): con paso fijo un
+ * frame puede tener 0 o varios pasos, y así no se pierden ni se repiten.
+ */
+public class KeyboardInput {
+
+    private int pressed = 0;
+
+    /** Recoger las teclas pulsadas en este frame (una vez por frame de render) */
+    public void poll() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) pressed |= InputCommand.ATTACK1;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.CONTROL_LEFT)) pressed |= InputCommand.ATTACK2;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.Q)) pressed |= InputCommand.FLASK;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.E)) pressed |= InputCommand.INTERACT;
+    }
+
+    /** Órdenes para el siguiente paso: teclas mantenidas más pulsaciones pendientes */
+    public void fill(InputCommand cmd) {
+        cmd.clear();
+        if (Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP)) cmd.press(InputCommand.UP);
+        if (Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN)) cmd.press(InputCommand.DOWN);
+        if (Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT)) cmd.press(InputCommand.LEFT);
+        if (Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT)) cmd.press(InputCommand.RIGHT);
+        cmd.press(pressed);
+        pressed = 0;
+    }
+}
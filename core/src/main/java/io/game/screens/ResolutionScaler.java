@@ -0,0 +1,272 @@
+package io.game.screens;
+
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+
+import io.game.debug.PhaseTimer;
+
+/**
+ * Resolución dinámica del mundo según lo que cuesta dibujarlo.
+ *
+ * El mundo se dibuja en un FrameBuffer de scale * pantalla y luego se estira a
+ * pantalla completa; la UI se sigue dibujando a resolución nativa. A escala 1
+ * no hay FrameBuffer ni copia: se dibuja directamente en pantalla.
+ *
+ * La señal es el tiempo de GPU, que es lo que baja con la escala; nunca se
+ * vacía la cola con glFinish(). Cada SAMPLE_FRAMES frames se toma una muestra:
+ *
+ * - Con consultas de tiempo (contexto GL3 con ARB_timer_query, o GLES3 con
+ *   EXT_disjoint_timer_query) se mide en la GPU la pasada del mundo, de begin()
+ *   a end(), y el resultado se recoge sin esperar en un frame posterior. Su
+ *   presupuesto es WORLD_SHARE del refresco del monitor. Lo que la CPU prepara
+ *   para el dibujo (recortar, ordenar) va antes de begin(), para que la GPU no
+ *   espere dentro del intervalo medido.
+ * - Sin ellas (el contexto GLES2 de ANGLE) se usa lo que el frame tarda de más
+ *   sobre su parte de CPU: frameStart() y frameEnd() cronometran con un
+ *   PhaseTimer el render() entero, y el resto hasta el frame siguiente es espera
+ *   por la GPU (swap incluido). Su presupuesto es lo que la CPU deja libre del
+ *   refresco; si la CPU sola ya no cabe, bajar la escala no ayuda y la muestra
+ *   no se cuenta.
+ *
+ * Si la media de las muestras, relativa a su presupuesto, lo pasa durante
+ * DOWN_SAMPLES muestras se baja un nivel; si se mantiene dentro durante upWait
+ * muestras se prueba a subir uno. Una subida que falla enseguida duplica
+ * upWait, para no oscilar entre dos niveles en una máquina justa.
+ *
+ * -Dgame.dynamicResolution=false lo desactiva (siempre escala 1).
+ */
+public class ResolutionScaler implements Disposable {
+
+    /** Escalas posibles, de mayor a menor; se cambia de una en una */
+    private static final float[] SCALES = {1f, 0.9f, 0.8f, 0.7f, 0.6f, 0.5f};
+
+    // cada cuántos frames se toma una muestra
+    private static final int SAMPLE_FRAMES = 10;
+    // parte del frame que puede llevarse el mundo; el resto es simulación, UI y swap
+    private static final float WORLD_SHARE = 0.6f;
+    // las esperas siguientes cuentan muestras, no frames
+    private static final int DOWN_SAMPLES = 3;
+    private static final int MIN_UP_WAIT = 18;
+    private static final int MAX_UP_WAIT = 360;
+    // una bajada antes de estas muestras tras subir cuenta como subida fallida
+    private static final int PROBE_SAMPLES = 12;
+    // muestras más largas que esto son tirones (compilar shaders, driver) y no se cuentan
+    private static final float HITCH_MS = 250f;
+
+    // consultas de tiempo (GL 3.3 / ARB_timer_query / EXT_disjoint_timer_query)
+    private static final int GL_TIME_ELAPSED = 0x88BF;
+    private static final int GL_GPU_DISJOINT_EXT = 0x8FBB;
+
+    // fases del frame sin consultas de tiempo
+    private static final int PHASE_CPU = 0;
+    private static final int PHASE_WAIT = 1;
+
+    private final boolean enabled = !"false".equals(System.getProperty("game.dynamicResolution"));
+
+    private int level = 0;
+    private float frameMs;
+    // media de las muestras divididas por su presupuesto (1 = justo)
+    private float averageLoad = 1f;
+    private int overSamples, underSamples;
+    private int upWait = MIN_UP_WAIT;
+    private int sinceUp = Integer.MAX_VALUE;
+
+    private int screenW, screenH;
+    private FrameBuffer fbo;
+    private Texture fboTexture;
+    private boolean drawing;
+    private int frame;
+
+    // con consultas de tiempo: una en vuelo como mucho
+    private final boolean timerQueries;
+    private final boolean disjointCheck;
+    private final IntBuffer queryResult = BufferUtils.newIntBuffer(1);
+    private final int[] queryIds = new int[1];
+    private boolean queryRunning, queryPending;
+
+    // sin ellas: CPU del render() y espera hasta el siguiente
+    private final PhaseTimer frameTimer = new PhaseTimer("resolución", "CPU", "espera GPU");
+    private boolean frameStarted;
+
+    public ResolutionScaler(int width, int height) {
+        int refresh = Gdx.graphics.getDisplayMode().refreshRate;
+        frameMs = 1000f / (refresh > 0 ? refresh : 60);
+        disjointCheck = Gdx.graphics.supportsExtension("GL_EXT_disjoint_timer_query");
+        timerQueries = enabled && Gdx.gl30 != null && (disjointCheck
+                || Gdx.graphics.supportsExtension("GL_ARB_timer_query")
+                || Gdx.graphics.getGLVersion().getType() == GLVersion.Type.OpenGL
+                    && Gdx.graphics.getGLVersion().isVersionEqualToOrHigher(3, 3));
+        if (timerQueries) {
+            Gdx.gl30.glGenQueries(1, queryIds, 0);
+        } else {
+            frameTimer.setEnabled(enabled);
+        }
+        resize(width, height);
+    }
+
+    public void resize(int width, int height) {
+        screenW = width;
+        screenH = height;
+        disposeBuffer();
+    }
+
+    public float getScale() {
+        return SCALES[level];
+    }
+
+    /** Cuenta una muestra de tiempo de GPU con su presupuesto y ajusta la escala */
+    private void update(float ms, float budgetMs) {
+        if (ms > HITCH_MS) return;
+        averageLoad += (ms / budgetMs - averageLoad) * 0.3f;
+        if (sinceUp < Integer.MAX_VALUE) sinceUp++;
+
+        if (averageLoad > 1.1f) {
+            overSamples++;
+            underSamples = 0;
+        } else if (averageLoad < 1.03f) {
+            underSamples++;
+            overSamples = 0;
+        } else {
+            overSamples = 0;
+            underSamples = 0;
+        }
+
+        if (overSamples >= DOWN_SAMPLES && level < SCALES.length - 1) {
+            if (sinceUp < PROBE_SAMPLES) upWait = Math.min(upWait * 2, MAX_UP_WAIT);
+            setLevel(level + 1);
+        } else if (underSamples >= upWait && level > 0) {
+            sinceUp = 0;
+            setLevel(level - 1);
+        } else if (sinceUp == PROBE_SAMPLES * 8) {
+            // estable mucho tiempo tras la última subida: se vuelve a probar pronto
+            upWait = MIN_UP_WAIT;
+        }
+    }
+
+    private void setLevel(int level) {
+        this.level = level;
+        overSamples = 0;
+        underSamples = 0;
+        averageLoad = 1f;
+        disposeBuffer();
+    }
+
+    /**
+     * Principio del render() de la pantalla, antes de simular. Sin consultas de
+     * tiempo cierra la espera desde el frame anterior y, si toca, la cuenta como muestra.
+     */
+    public void frameStart() {
+        if (!enabled || timerQueries) return;
+        if (!frameStarted) {
+            frameStarted = true;
+            frameTimer.begin();
+            return;
+        }
+        frameTimer.lap(PHASE_WAIT);
+        frameTimer.endFrame();
+        if (++frame < SAMPLE_FRAMES) return;
+        frame = 0;
+        float cpuMs = frameTimer.getMillis(PHASE_CPU);
+        // la CPU sola no cabe en el frame: no es cosa de la resolución
+        if (cpuMs >= frameMs) return;
+        update(frameTimer.getMillis(PHASE_WAIT), frameMs - cpuMs);
+    }
+
+    /** Final del render() de la pantalla, con todo dibujado */
+    public void frameEnd() {
+        if (frameStarted) frameTimer.lap(PHASE_CPU);
+    }
+
+    /** Recoge la consulta de tiempo pendiente si la GPU ya la tiene, sin esperar */
+    private void pollQuery() {
+        queryResult.clear();
+        Gdx.gl30.glGetQueryObjectuiv(queryIds[0], GL30.GL_QUERY_RESULT_AVAILABLE, queryResult);
+        if (queryResult.get(0) == 0) return;
+        queryPending = false;
+        queryResult.clear();
+        Gdx.gl30.glGetQueryObjectuiv(queryIds[0], GL30.GL_QUERY_RESULT, queryResult);
+        long ns = queryResult.get(0) & 0xffffffffL;
+        if (disjointCheck) {
+            // la GPU cambió de frecuencia o de contexto a mitad: el tiempo no vale
+            queryResult.clear();
+            Gdx.gl.glGetIntegerv(GL_GPU_DISJOINT_EXT, queryResult);
+            if (queryResult.get(0) != 0) return;
+        }
+        update(ns / 1e6f, frameMs * WORLD_SHARE);
+    }
+
+    /**
+     * Redirige el dibujo del mundo al FrameBuffer (si la escala es menor que 1)
+     * y lo limpia. El viewport de GL queda del tamaño del FrameBuffer; la
+     * cámara no cambia, así que se ve la misma zona del mundo con menos píxeles.
+     * Con consultas de tiempo, un frame de cada SAMPLE_FRAMES empieza aquí la
+     * medida en la GPU (si la anterior ya se recogió).
+     */
+    public void begin() {
+        if (timerQueries) {
+            if (queryPending) pollQuery();
+            if (++frame >= SAMPLE_FRAMES && !queryPending) {
+                frame = 0;
+                Gdx.gl30.glBeginQuery(GL_TIME_ELAPSED, queryIds[0]);
+                queryRunning = true;
+            }
+        }
+        if (level == 0) return;
+        if (fbo == null) {
+            int w = Math.max(1, Math.round(screenW * SCALES[level]));
+            int h = Math.max(1, Math.round(screenH * SCALES[level]));
+            fbo = new FrameBuffer(Pixmap.Format.RGB888, w, h, false);
+            fboTexture = fbo.getColorBufferTexture();
+            fboTexture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        fbo.begin();
+        ScreenUtils.clear(Color.BLACK);
+        drawing = true;
+    }
+
+    /**
+     * Vuelve a la pantalla y estira el FrameBuffer sobre ella; si este frame
+     * se mide, cierra la consulta (el resultado se recoge en otro frame).
+     * El batch debe estar terminado; se deja con la proyección de pantalla indicada.
+     */
+    public void end(SpriteBatch batch, Matrix4 screenProjection) {
+        if (drawing) {
+            drawing = false;
+            fbo.end();
+            batch.setProjectionMatrix(screenProjection);
+            batch.begin();
+            // la textura del FrameBuffer está invertida en vertical: v va de abajo (0) a arriba (1)
+            batch.draw(fboTexture, 0, 0, screenW, screenH, 0, 0, 1, 1);
+            batch.end();
+        }
+        if (queryRunning) {
+            queryRunning = false;
+            queryPending = true;
+            Gdx.gl30.glEndQuery(GL_TIME_ELAPSED);
+        }
+    }
+
+    private void disposeBuffer() {
+        if (fbo != null) fbo.dispose();
+        fbo = null;
+        fboTexture = null;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffer();
+        if (timerQueries) Gdx.gl30.glDeleteQueries(1, queryIds, 0);
+    }
+}
@@ -4,7 +4,6 @@ import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 
 import io.game.managers.Resources;
 
@@ -48,13 +47,13 @@ public class Button extends ImageButton {
     }
 
     /**
-     * Obtener el set de texturas de un boton
+     * Obtener el set de imágenes de un boton (del atlas si se ha empaquetado)
      */
 	private static ImageButtonStyle getDrawable(String name, String basePath) {
 		ImageButtonStyle style = new ImageButtonStyle();
-		style.up = new TextureRegionDrawable(Resources.getTexture(name + "_normal", basePath));
-		style.over = new TextureRegionDrawable(Resources.getTexture(name + "_hover", basePath));
-		style.down = new TextureRegionDrawable(Resources.getTexture(name + "_click", basePath));
+		style.up = Resources.getDrawable(name + "_normal", basePath);
+		style.over = Resources.getDrawable(name + "_hover", basePath);
+		style.down = Resources.getDrawable(name + "_click", basePath);
 
 		return style;
 	}
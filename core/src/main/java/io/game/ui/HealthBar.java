@@ -1,6 +1,6 @@
 package io.game.ui;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 import io.game.components.HealthComponent;
@@ -9,7 +9,7 @@ import io.game.managers.Resources;
 public class HealthBar {
     public static final String BASE_PATH = "graphics/ui/playerUI";
     
-    private Texture[] lifeBarTextures;
+    private TextureRegion[] lifeBarTextures;
     private float x, y;
     private float width, height;
     
@@ -23,14 +23,14 @@ public class HealthBar {
     }
     
     private void loadTextures() {
-        lifeBarTextures = new Texture[5];
+        lifeBarTextures = new TextureRegion[5];
         for (int i = 0; i < 5; i++) {
             Resources.loadTexture("LifeBar" + i, BASE_PATH);
         }
         Resources.finish();
         
         for (int i = 0; i < 5; i++) {
-            lifeBarTextures[i] = Resources.getTexture("LifeBar" + i, BASE_PATH);
+            lifeBarTextures[i] = Resources.getRegion("LifeBar" + i, BASE_PATH);
         }
     }
     
@@ -53,7 +53,7 @@ public class HealthBar {
             textureIndex = 0; // LifeBar0 - vacía (0 vida)
         }
         
-        batch.draw(lifeBarTextures[textureIndex], x, y, width, height);
+        Resources.draw(batch, lifeBarTextures[textureIndex], x, y, width, height);
     }
     
     public void setPosition(float x, float y) {
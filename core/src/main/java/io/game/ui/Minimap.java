@@ -0,0 +1,182 @@
+package io.game.ui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+
+import io.game.components.Direction;
+import io.game.maps.DungeonGraph;
+import io.game.maps.Room;
+
+import java.util.List;
+
+/**
+ * Minimapa con niebla de guerra: solo se ven las habitaciones descubiertas
+ * (Room.discovered), con sus puertas, la llave, el cofre y las escaleras.
+ *
+ * Todo el mapa vive en una textura que se pinta entera al empezar el nivel y
+ * después celda a celda (Texture.draw de un Pixmap pequeño) cuando cambia una
+ * habitación: al descubrirla, al recoger su llave, al abrir su cofre o al
+ * entrar o salir el jugador, que se marca resaltando su habitación. Dibujarlo
+ * cuesta un solo quad por frame, tenga la mazmorra las habitaciones que tenga.
+ */
+public class Minimap implements Disposable {
+
+    // lado máximo de la textura; en mazmorras enormes cada celda ocupa menos píxeles
+    private static final int MAX_TEXTURE = 1024;
+    private static final int MAX_CELL = 12;
+    private static final int MIN_CELL = 3;
+
+    private static final int BACKGROUND = Color.rgba8888(0f, 0f, 0f, 0.45f);
+    private static final int FLOOR = Color.rgba8888(0.55f, 0.55f, 0.6f, 0.9f);
+    private static final int CURRENT = Color.rgba8888(0.95f, 0.95f, 0.95f, 1f);
+    private static final int KEY = Color.rgba8888(0.3f, 0.8f, 1f, 1f);
+    private static final int CHEST = Color.rgba8888(1f, 0.8f, 0.2f, 1f);
+    private static final int STAIRS = Color.rgba8888(0.3f, 1f, 0.3f, 1f);
+
+    private float x, y;
+    private final float maxWidth, maxHeight;
+
+    private int minX, maxY;
+    private int cell;
+    private int mapW, mapH;
+    private Pixmap cellPixmap;
+    private Texture texture;
+    private Room current;
+
+    /**
+     * @param x, y esquina inferior derecha del minimapa en pantalla
+     * @param maxWidth, maxHeight tamaño máximo en pantalla
+     */
+    public Minimap(float x, float y, float maxWidth, float maxHeight) {
+        this.x = x;
+        this.y = y;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    /** Mueve la esquina inferior derecha del minimapa (al cambiar el tamaño de la ventana) */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /** Pinta el mapa del nivel nuevo entero (una vez por nivel) */
+    public void build(DungeonGraph graph, Room current) {
+        this.current = current;
+        List<Room> rooms = graph.getRooms();
+        int minXc = Integer.MAX_VALUE, maxXc = Integer.MIN_VALUE;
+        int minYc = Integer.MAX_VALUE, maxYc = Integer.MIN_VALUE;
+        for (int i = 0; i < rooms.size(); i++) {
+            Room r = rooms.get(i);
+            minXc = Math.min(minXc, r.x);
+            maxXc = Math.max(maxXc, r.x);
+            minYc = Math.min(minYc, r.y);
+            maxYc = Math.max(maxYc, r.y);
+        }
+        if (rooms.isEmpty()) {
+            minXc = maxXc = minYc = maxYc = 0;
+        }
+        minX = minXc;
+        maxY = maxYc;
+        int cellsW = maxXc - minXc + 1;
+        int cellsH = maxYc - minYc + 1;
+        int newCell = Math.max(MIN_CELL, Math.min(MAX_CELL, MAX_TEXTURE / Math.max(cellsW, cellsH)));
+
+        disposeTextures();
+        cell = newCell;
+        mapW = cellsW * cell;
+        mapH = cellsH * cell;
+        Pixmap map = new Pixmap(mapW, mapH, Pixmap.Format.RGBA8888);
+        map.setBlending(Pixmap.Blending.None);
+        map.setColor(BACKGROUND);
+        map.fill();
+        cellPixmap = new Pixmap(cell, cell, Pixmap.Format.RGBA8888);
+        cellPixmap.setBlending(Pixmap.Blending.None);
+
+        for (int i = 0; i < rooms.size(); i++) {
+            Room r = rooms.get(i);
+            if (!r.discovered) continue;
+            paintCell(r);
+            map.drawPixmap(cellPixmap, (r.x - minX) * cell, (maxY - r.y) * cell);
+        }
+        texture = new Texture(map);
+        map.dispose();
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+    }
+
+    /** Cambió el estado de una habitación (descubierta, llave, cofre): se repinta su celda */
+    public void update(Room room) {
+        if (texture == null) return;
+        int px = (room.x - minX) * cell;
+        int py = (maxY - room.y) * cell;
+        if (px < 0 || py < 0 || px + cell > mapW || py + cell > mapH) return;
+        paintCell(room);
+        // solo se sube la celda (glTexSubImage2D)
+        texture.draw(cellPixmap, px, py);
+    }
+
+    /** El jugador entró en otra habitación: se resaltan la nueva y se apaga la anterior */
+    public void setCurrent(Room room) {
+        Room previous = current;
+        current = room;
+        if (previous != null) update(previous);
+        if (room != null) update(room);
+    }
+
+    // ----------------------------
+    // Pinta la celda de una habitación en cellPixmap (coordenadas de Pixmap: y hacia abajo)
+    // ----------------------------
+    private void paintCell(Room room) {
+        Pixmap p = cellPixmap;
+        p.setColor(BACKGROUND);
+        p.fill();
+        if (!room.discovered) return;
+
+        // suelo con un margen alrededor y pasillos hacia las puertas conectadas
+        int margin = Math.max(1, cell / 6);
+        int inner = cell - margin * 2;
+        int door = Math.max(1, cell / 4);
+        int doorStart = (cell - door) / 2;
+        p.setColor(room == current ? CURRENT : FLOOR);
+        p.fillRectangle(margin, margin, inner, inner);
+        if (room.isConnected(Direction.N)) p.fillRectangle(doorStart, 0, door, margin);
+        if (room.isConnected(Direction.S)) p.fillRectangle(doorStart, cell - margin, door, margin);
+        if (room.isConnected(Direction.E)) p.fillRectangle(cell - margin, doorStart, margin, door);
+        if (room.isConnected(Direction.O)) p.fillRectangle(0, doorStart, margin, door);
+
+        // lo que queda por hacer en la habitación, como un punto en el centro
+        int mark = 0;
+        if (room.hasKey && !room.keyCollected) mark = KEY;
+        else if (room.hasChest && !room.chestOpened) mark = CHEST;
+        else if (room.hasStairs) mark = STAIRS;
+        if (mark != 0) {
+            int dot = Math.max(1, cell / 3);
+            int dotStart = (cell - dot) / 2;
+            p.setColor(mark);
+            p.fillRectangle(dotStart, dotStart, dot, dot);
+        }
+    }
+
+    public void render(SpriteBatch batch) {
+        if (texture == null) return;
+        float scale = Math.min(maxWidth / texture.getWidth(), maxHeight / texture.getHeight());
+        float w = texture.getWidth() * scale;
+        float h = texture.getHeight() * scale;
+        batch.draw(texture, x - w, y, w, h);
+    }
+
+    private void disposeTextures() {
+        if (texture != null) texture.dispose();
+        if (cellPixmap != null) cellPixmap.dispose();
+        texture = null;
+        cellPixmap = null;
+    }
+
+    @Override
+    public void dispose() {
+        disposeTextures();
+    }
+}
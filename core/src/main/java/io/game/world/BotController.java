@@ -0,0 +1,227 @@
+package io.game.world;
+
+import java.util.List;
+
+import com.badlogic.gdx.graphics.Color;
+
+import io.game.components.Direction;
+import io.game.debug.DebugDraw;
+import io.game.entities.EnemyStore;
+import io.game.entities.characters.Player;
+import io.game.maps.DungeonGraph;
+import io.game.maps.Room;
+
+/**
+ * Piloto automático del jugador: genera las órdenes de cada paso a partir
+ * del estado del mundo, como lo haría el teclado.
+ *
+ * Recoge las llaves, abre los cofres con ellas, baja por las escaleras y
+ * golpea a los orcos que se le acercan, sin intervención humana. Sirve para
+ * pruebas de larga duración (SoakRunner) y para dejar el juego en marcha solo.
+ *
+ * Se mueve por el grafo de habitaciones: busca en anchura la habitación
+ * objetivo más cercana, va al centro de la habitación actual y de ahí en
+ * línea recta a la siguiente (el camino centro a centro pasa por la puerta).
+ */
+public class BotController {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // pasos seguidos sin moverse para considerarse atascado
+    private static final int STUCK_STEPS = 45;
+    private static final int UNSTUCK_STEPS = 20;
+
+    private final Rng rng;
+
+    // búsqueda en anchura por índice de nodo; se reservan al cambiar de tamaño
+    private int[] previous = new int[0];
+    private int[] queue = new int[0];
+    // extremos del último camino encontrado (-1 si no hay), para dibujarlo
+    private int pathStart = -1;
+    private int pathGoal = -1;
+
+    private float lastX, lastY;
+    private int stillSteps = 0;
+    private int unstuckLeft = 0;
+    private int unstuckButtons = 0;
+
+    // quedan llaves por recoger en el nivel (antes de bajar se recogen todas)
+    private boolean hasPendingKeys;
+
+    public BotController(long seed) {
+        this.rng = new Rng(Rng.derive(seed, Rng.BOT));
+    }
+
+    /**
+     * Decide las órdenes del siguiente paso
+     */
+    public void think(World world, InputCommand cmd) {
+        cmd.clear();
+        pathGoal = -1;
+        Player player = world.getPlayer();
+        if (player.health.isDead()) return;
+
+        float tileW = world.getTileWidth();
+        float tileH = world.getTileHeight();
+        float px = player.position.x + player.size.x * 0.5f;
+        float py = player.position.y + player.size.y * 0.5f;
+
+        fight(world, player, cmd);
+
+        // curarse con margen antes de que el siguiente golpe sea peligroso
+        if (player.health.getHealth() <= player.health.getMaxHealth() / 2 && player.getFlasks() > 0) {
+            cmd.press(InputCommand.FLASK);
+        }
+
+        if (unstuckLeft > 0) {
+            unstuckLeft--;
+            cmd.press(unstuckButtons);
+            return;
+        }
+        if (Math.abs(px - lastX) < 0.5f && Math.abs(py - lastY) < 0.5f) {
+            if (++stillSteps >= STUCK_STEPS) {
+                // atascado (contra un orco o una esquina): moverse al azar un momento
+                stillSteps = 0;
+                unstuckLeft = UNSTUCK_STEPS;
+                unstuckButtons = 1 << rng.nextInt(4);
+            }
+        } else {
+            stillSteps = 0;
+        }
+        lastX = px;
+        lastY = py;
+
+        DungeonGraph graph = world.getGraph();
+        List<Room> rooms = graph.getRooms();
+        hasPendingKeys = false;
+        for (int i = 0; i < rooms.size(); i++) {
+            Room r = rooms.get(i);
+            if (r.hasKey && !r.keyCollected) hasPendingKeys = true;
+        }
+
+        Room here = world.getRoomTracker().getCurrent();
+        if (here == null) here = graph.getRoomAt(px, py, tileW, tileH);
+        if (here == null) return;
+
+        // llave, cofre o escaleras en esta habitación: ir al centro e interactuar
+        if (wants(here, player)) {
+            moveTowards(px, py, (here.x + 0.5f) * tileW, (here.y + 0.5f) * tileH, tileW * 0.05f, cmd);
+            cmd.press(InputCommand.INTERACT);
+            return;
+        }
+
+        Direction next = firstStep(graph, here, player);
+        if (next == null) return;
+
+        // alinearse con el centro en el eje perpendicular y cruzar la puerta
+        float cx = (here.x + 0.5f) * tileW;
+        float cy = (here.y + 0.5f) * tileH;
+        float tolerance = tileW * 0.03f;
+        boolean aligned = next.dx != 0 ? Math.abs(py - cy) <= tolerance : Math.abs(px - cx) <= tolerance;
+        if (!aligned) {
+            moveTowards(px, py, cx, cy, 1f, cmd);
+        } else {
+            moveTowards(px, py, cx + next.dx * tileW, cy + next.dy * tileH, 1f, cmd);
+        }
+    }
+
+    // ----------------------------
+    // Ataca si algún orco vivo está a su alcance
+    // ----------------------------
+    private void fight(World world, Player player, InputCommand cmd) {
+        if (player.combat.isAttacking()) return;
+        EnemyStore e = world.getEnemies();
+        float range = player.combat.getAttackRange() * 0.9f;
+        for (int i = 0; i < e.count; i++) {
+            if (e.isDead(i)) continue;
+            float dx = player.position.x - e.x[i];
+            float dy = player.position.y - e.y[i];
+            if (dx * dx + dy * dy <= range * range) {
+                cmd.press(InputCommand.ATTACK1);
+                return;
+            }
+        }
+    }
+
+    /** La habitación tiene algo que el bot quiere hacer ahora */
+    private boolean wants(Room r, Player player) {
+        if (r.hasKey && !r.keyCollected) return true;
+        if (r.hasChest && !r.chestOpened) return player.getKeys() > 0;
+        return r.hasStairs && !hasPendingKeys;
+    }
+
+    /**
+     * Búsqueda en anchura desde la habitación actual hasta la objetivo más cercana
+     * @return dirección de la primera puerta del camino, o null si no hay camino
+     */
+    private Direction firstStep(DungeonGraph graph, Room here, Player player) {
+        int n = graph.size();
+        if (previous.length < n) {
+            previous = new int[n];
+            queue = new int[n];
+        }
+
+        for (int i = 0; i < n; i++) previous[i] = -1;
+        int start = graph.getNode(here).index;
+        previous[start] = start;
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+
+        int goal = -1;
+        while (head < tail && goal < 0) {
+            int current = queue[head++];
+            Room r = graph.getRooms().get(current);
+            for (Direction d : DIRECTIONS) {
+                if (!r.isConnected(d)) continue;
+                DungeonGraph.Node next = graph.getNode(r.x + d.dx, r.y + d.dy);
+                if (next == null || previous[next.index] >= 0) continue;
+                previous[next.index] = current;
+                queue[tail++] = next.index;
+                if (wants(next.room, player)) {
+                    goal = next.index;
+                    break;
+                }
+            }
+        }
+        if (goal < 0) return null;
+        pathStart = start;
+        pathGoal = goal;
+
+        // retroceder hasta la habitación vecina de la actual
+        int step = goal;
+        while (previous[step] != start) step = previous[step];
+        Room target = graph.getRooms().get(step);
+        for (Direction d : DIRECTIONS) {
+            if (here.x + d.dx == target.x && here.y + d.dy == target.y) return d;
+        }
+        return null;
+    }
+
+    /**
+     * DEBUG: encola el último camino de habitaciones, de centro a centro, con
+     * un aspa en la habitación objetivo
+     */
+    public void debugDraw(World world) {
+        if (!DebugDraw.isEnabled() || pathGoal < 0) return;
+        List<Room> rooms = world.getGraph().getRooms();
+        float tileW = world.getTileWidth();
+        float tileH = world.getTileHeight();
+        Room goal = rooms.get(pathGoal);
+        DebugDraw.cross((goal.x + 0.5f) * tileW, (goal.y + 0.5f) * tileH, tileW * 0.1f, Color.CYAN);
+        for (int step = pathGoal; step != pathStart; step = previous[step]) {
+            Room a = rooms.get(step);
+            Room b = rooms.get(previous[step]);
+            DebugDraw.line((a.x + 0.5f) * tileW, (a.y + 0.5f) * tileH,
+                (b.x + 0.5f) * tileW, (b.y + 0.5f) * tileH, Color.CYAN);
+        }
+    }
+
+    private static void moveTowards(float px, float py, float tx, float ty, float deadZone, InputCommand cmd) {
+        float dx = tx - px;
+        float dy = ty - py;
+        if (dx > deadZone) cmd.press(InputCommand.RIGHT);
+        else if (dx < -deadZone) cmd.press(InputCommand.LEFT);
+        if (dy > deadZone) cmd.press(InputCommand.UP);
+        else if (dy < -deadZone) cmd.press(InputCommand.DOWN);
+    }
+}
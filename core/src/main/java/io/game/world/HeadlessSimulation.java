@@ -0,0 +1,49 @@
+package io.game.world;
+
+/**
+ * Ejecuta el mundo sin ventana ni GPU, tan rápido como permita la CPU.
+ *
+ * Uso: HeadlessSimulation [pasos] [nivel] [hilos] [semilla]
+ * (por defecto 36000 pasos = 10 minutos de juego, nivel 1, todos los núcleos, semilla 1).
+ * Imprime cuántos pasos por segundo consigue, que es el coste de la lógica pura.
+ */
+public final class HeadlessSimulation {
+
+    /** Tamaño de habitación de una ventana de 1920 px con 2.5 habitaciones visibles */
+    public static final float TILE_SIZE = 768f;
+
+    private HeadlessSimulation() {
+    }
+
+    /**
+     * Avanza el mundo el número de pasos indicado con las órdenes dadas
+     * @return pasos ejecutados (se detiene antes si termina la partida)
+     */
+    public static long run(World world, InputCommand cmd, long steps) {
+        long done = 0;
+        while (done < steps && !world.isOver()) {
+            world.step(World.STEP, cmd);
+            done++;
+        }
+        return done;
+    }
+
+    public static void main(String[] args) {
+        long steps = args.length > 0 ? Long.parseLong(args[0]) : 36000;
+        int level = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+
+        World world = new World(TILE_SIZE, TILE_SIZE, seed, threads);
+        world.start(level);
+
+        long start = System.nanoTime();
+        long done = run(world, new InputCommand(), steps);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d pasos (%.1f s de juego) en %.2f s: %.0f pasos/s, %.0fx tiempo real, %d enemigos%n",
+            done, done * World.STEP, seconds, done / seconds, done * World.STEP / seconds,
+            world.getEnemies().count);
+        world.dispose();
+    }
+}
@@ -0,0 +1,45 @@
+package io.game.world;
+
+/**
+ * Órdenes del jugador para un paso de simulación, como máscara de bits.
+ * Los movimientos son teclas mantenidas; ataque, frasco e interacción son
+ * pulsaciones que el jugador consume en el paso en que las recibe.
+ *
+ * La simulación no sabe de dónde vienen (teclado, bot, grabación...).
+ */
+public final class InputCommand {
+
+    public static final int UP = 1;
+    public static final int DOWN = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int ATTACK1 = 1 << 4;
+    public static final int ATTACK2 = 1 << 5;
+    public static final int FLASK = 1 << 6;
+    public static final int INTERACT = 1 << 7;
+
+    public int buttons;
+
+    public boolean isDown(int button) {
+        return (buttons & button) != 0;
+    }
+
+    public void press(int button) {
+        buttons |= button;
+    }
+
+    /** Devuelve si el botón estaba pulsado y lo quita (para pulsaciones de un solo uso) */
+    public boolean consume(int button) {
+        boolean down = (buttons & button) != 0;
+        buttons &= ~button;
+        return down;
+    }
+
+    public void set(InputCommand other) {
+        buttons = other.buttons;
+    }
+
+    public void clear() {
+        buttons = 0;
+    }
+}
@@ -0,0 +1,113 @@
+package io.game.world;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Graba una partida como semilla + órdenes de cada paso, en binario compacto.
+ *
+ * Formato (big endian):
+ * <pre>
+ *   int  MAGIC, byte VERSION, long semilla, int nivel inicial, float ancho y alto de habitación
+ *   repetido: varint n (&gt; 0), byte botones  -&gt; n pasos seguidos con esos botones
+ *   varint 0, byte RESTART                  -&gt; World.restart() antes del siguiente paso
+ *   varint 0, byte END, long stateHash      -&gt; fin de sesión; resumen del mundo al cerrarla
+ * </pre>
+ * Las órdenes se comprimen por tramos: mientras se mantiene la misma
+ * combinación de teclas solo crece el contador (unos pocos bytes por segundo).
+ *
+ * Una grabación puede tener varias sesiones: al volver al menú se cierra con
+ * END y al volver a jugar resume() sigue en el mismo archivo, sin cabecera.
+ * Un END seguido de más datos es un punto de control: la reproducción
+ * comprueba ahí el resumen y continúa.
+ */
+public class InputRecorder {
+
+    public static final int MAGIC = 0x47524543; // "GREC"
+    public static final byte VERSION = 1;
+
+    static final int RESTART = 1;
+    static final int END = 2;
+
+    private final DataOutputStream out;
+    private int runButtons = -1;
+    private int runLength = 0;
+    private long steps = 0;
+
+    /**
+     * Empieza a grabar un mundo recién iniciado (después de World.start)
+     */
+    public InputRecorder(OutputStream stream, World world) throws IOException {
+        this(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(world.getSeed());
+        out.writeInt(world.getLevel());
+        // el tamaño de habitación cambia distancias y colisiones: hay que repetirlo
+        out.writeFloat(world.getTileWidth());
+        out.writeFloat(world.getTileHeight());
+    }
+
+    private InputRecorder(OutputStream stream) {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+    }
+
+    /**
+     * Sigue una grabación cerrada con close(): stream debe escribir al final
+     * del mismo archivo, y el mundo estar como quedó al cerrarla
+     */
+    public static InputRecorder resume(OutputStream stream) {
+        return new InputRecorder(stream);
+    }
+
+    /** Registra las órdenes de un paso (llamar justo antes de World.step) */
+    public void record(InputCommand cmd) throws IOException {
+        int buttons = cmd.buttons & 0xFF;
+        if (buttons != runButtons && runLength > 0) flushRun();
+        runButtons = buttons;
+        runLength++;
+        steps++;
+    }
+
+    /** Registra un World.restart() (desde la pantalla de game over) */
+    public void recordRestart() throws IOException {
+        flushRun();
+        writeVarInt(0);
+        out.writeByte(RESTART);
+        // lo grabado hasta el reinicio queda en disco aunque el juego se cierre mal
+        out.flush();
+    }
+
+    /**
+     * Cierra la grabación guardando el resumen del mundo, que la reproducción
+     * usa para comprobar que llegó exactamente al mismo estado
+     */
+    public void close(World world) throws IOException {
+        flushRun();
+        writeVarInt(0);
+        out.writeByte(END);
+        out.writeLong(world.stateHash());
+        out.close();
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    private void flushRun() throws IOException {
+        if (runLength == 0) return;
+        writeVarInt(runLength);
+        out.writeByte(runButtons);
+        runLength = 0;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
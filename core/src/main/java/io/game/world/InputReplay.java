@@ -0,0 +1,133 @@
+package io.game.world;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lee una grabación de InputRecorder y devuelve las órdenes paso a paso.
+ */
+public class InputReplay {
+
+    private final DataInputStream in;
+    private final long seed;
+    private final int startLevel;
+    private final float tileW, tileH;
+
+    private int runButtons;
+    private int runLeft = 0;
+    private boolean restartPending = false;
+    private boolean checkpointPending = false;
+    private boolean ended = false;
+    private long expectedHash;
+    private int failedCheckpoints = 0;
+
+    public InputReplay(InputStream stream) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != InputRecorder.MAGIC) throw new IOException("Not a game recording");
+        byte version = in.readByte();
+        if (version != InputRecorder.VERSION) throw new IOException("Unsupported recording version: " + version);
+        seed = in.readLong();
+        startLevel = in.readInt();
+        tileW = in.readFloat();
+        tileH = in.readFloat();
+    }
+
+    /**
+     * Órdenes del siguiente paso
+     * @return false al llegar al final de la grabación
+     */
+    public boolean next(InputCommand cmd) throws IOException {
+        while (runLeft == 0) {
+            if (ended || restartPending || checkpointPending) return false;
+            int n = readVarInt();
+            int value = in.readUnsignedByte();
+            if (n > 0) {
+                runLeft = n;
+                runButtons = value;
+            } else if (value == InputRecorder.RESTART) {
+                restartPending = true;
+            } else if (value == InputRecorder.END) {
+                expectedHash = in.readLong();
+                // con más datos detrás es el cierre de una sesión, no el final
+                in.mark(1);
+                if (in.read() < 0) {
+                    ended = true;
+                    in.close();
+                } else {
+                    in.reset();
+                    checkpointPending = true;
+                }
+            } else {
+                throw new IOException("Corrupt recording: unknown marker " + value);
+            }
+        }
+        runLeft--;
+        cmd.buttons = runButtons;
+        return true;
+    }
+
+    /**
+     * Si next() devolvió false por un reinicio, lo consume: hay que llamar a
+     * World.restart() y seguir leyendo
+     */
+    public boolean consumeRestart() {
+        boolean pending = restartPending;
+        restartPending = false;
+        return pending;
+    }
+
+    /**
+     * Si next() devolvió false por el cierre de una sesión, compara el resumen
+     * guardado con el del mundo (ver getFailedCheckpoints) y hay que seguir leyendo
+     */
+    public boolean consumeCheckpoint(World world) {
+        if (!checkpointPending) return false;
+        checkpointPending = false;
+        if (world.stateHash() != expectedHash) failedCheckpoints++;
+        return true;
+    }
+
+    /** Cierres de sesión en los que el mundo no coincidía con la grabación */
+    public int getFailedCheckpoints() {
+        return failedCheckpoints;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /** Resumen del mundo al final de la grabación (válido cuando isEnded()) */
+    public long getExpectedHash() {
+        return expectedHash;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getStartLevel() {
+        return startLevel;
+    }
+
+    public float getTileWidth() {
+        return tileW;
+    }
+
+    public float getTileHeight() {
+        return tileH;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package io.game.world;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Reproduce una grabación sin ventana, tan rápido como permita la CPU,
+ * y comprueba que la partida termina exactamente en el mismo estado (y que
+ * lo estaba al cerrar cada sesión, si la grabación tiene varias).
+ *
+ * Uso: ReplayRunner partida.rec [hilos]
+ */
+public final class ReplayRunner {
+
+    private ReplayRunner() {
+    }
+
+    /**
+     * Reproduce la grabación sobre un mundo nuevo
+     * @return el mundo tal como quedó al final
+     */
+    public static World replay(InputReplay replay, int threads) throws IOException {
+        World world = new World(replay.getTileWidth(), replay.getTileHeight(), replay.getSeed(), threads);
+        world.start(replay.getStartLevel());
+
+        InputCommand cmd = new InputCommand();
+        while (true) {
+            while (replay.next(cmd)) {
+                world.step(World.STEP, cmd);
+            }
+            if (replay.consumeCheckpoint(world)) continue;
+            if (!replay.consumeRestart()) break;
+            world.restart();
+        }
+        return world;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: ReplayRunner partida.rec [hilos]");
+            System.exit(2);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        InputReplay replay;
+        try (FileInputStream in = new FileInputStream(args[0])) {
+            replay = new InputReplay(in);
+            long start = System.nanoTime();
+            World world = replay(replay, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long steps = world.getTick();
+            System.out.printf("%d pasos (%.1f s de juego) en %.2f s: %.0fx tiempo real%n",
+                steps, steps * World.STEP, seconds, steps * World.STEP / seconds);
+
+            boolean same = replay.isEnded() && replay.getFailedCheckpoints() == 0
+                && replay.getExpectedHash() == world.stateHash();
+            System.out.println(same ? "Reproducción idéntica" : "La reproducción NO coincide con la grabación");
+            world.dispose();
+            if (!same) System.exit(1);
+        }
+    }
+}
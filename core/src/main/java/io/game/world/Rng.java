@@ -0,0 +1,92 @@
+package io.game.world;
+
+import java.util.Random;
+
+/**
+ * Generador aleatorio con semilla para la simulación (SplitMix64).
+ *
+ * Cada subsistema (generador de mazmorras, aparición de enemigos, botín, IA,
+ * bot) tiene su propio flujo derivado de la semilla del nivel con derive(),
+ * así que lo que consume uno no altera la secuencia de los demás y la
+ * partida se reproduce igual con la misma semilla.
+ *
+ * Extiende java.util.Random para poder pasarlo a Collections.shuffle y
+ * similares, pero sin el AtomicLong de Random: cada instancia es de un solo
+ * hilo. Los enemigos, que se actualizan en paralelo, guardan su estado en un
+ * long por enemigo y usan los métodos estáticos nextFloat(long[], int).
+ */
+public final class Rng extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    // subsistemas con flujo propio
+    public static final int GENERATOR = 1;
+    public static final int SPAWN = 2;
+    public static final int LOOT = 3;
+    public static final int AI = 4;
+    public static final int BOT = 5;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public Rng(long seed) {
+        super(0L);
+        this.state = seed;
+    }
+
+    /** Semilla de un flujo hijo: misma semilla y clave, mismo flujo */
+    public static long derive(long seed, long key) {
+        return mix(seed + mix(key * GOLDEN_GAMMA));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // Random(long) lo llama desde su constructor, antes de que exista este objeto del todo
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Número en [0, 1) del flujo guardado en states[i] (uno por entidad).
+     * Solo toca states[i], así que es seguro desde varios hilos si cada uno
+     * trabaja con índices distintos.
+     */
+    public static float nextFloat(long[] states, int i) {
+        long s = states[i] + GOLDEN_GAMMA;
+        states[i] = s;
+        return (mix(s) >>> 40) * 0x1.0p-24f;
+    }
+
+    /** Función de mezcla de SplitMix64 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,99 @@
+package io.game.world;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Prueba de resistencia sin ventana: juega muchas partidas completas con el
+ * piloto automático (BotController), una semilla distinta por partida, e
+ * informa del rendimiento y de la memoria.
+ *
+ * Uso: SoakRunner [partidas] [hilos] [primera semilla]
+ * (por defecto 200 partidas, todos los núcleos, semilla 1)
+ *
+ * Sin ventana no hay frames: el tiempo por paso de simulación hace su papel.
+ * Informa de pasos por segundo, percentiles del tiempo por paso y del heap
+ * usado tras GC al principio y cada 50 partidas: si crece sin parar hay una fuga.
+ */
+public final class SoakRunner {
+
+    /** Límite de pasos por partida (30 minutos de juego) para que un bot atascado no bloquee la prueba */
+    public static final long MAX_STEPS_PER_RUN = 30 * 60 * 60;
+
+    // histograma del tiempo por paso en microsegundos (el último cubo acumula lo que se sale)
+    private static final int HISTOGRAM_US = 100_000;
+
+    private SoakRunner() {
+    }
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] histogram = new long[HISTOGRAM_US + 1];
+        long maxStepNanos = 0;
+        long totalSteps = 0;
+        int wins = 0, deaths = 0, timeouts = 0;
+
+        InputCommand cmd = new InputCommand();
+        long baseHeap = usedHeapAfterGc(memory);
+        System.out.printf("Heap inicial: %.1f MB%n", baseHeap / 1048576.0);
+
+        long start = System.nanoTime();
+        for (int run = 0; run < runs; run++) {
+            long seed = firstSeed + run;
+            World world = new World(HeadlessSimulation.TILE_SIZE, HeadlessSimulation.TILE_SIZE, seed, threads);
+            BotController bot = new BotController(seed);
+            world.start(1);
+
+            long steps = 0;
+            while (!world.isOver() && steps < MAX_STEPS_PER_RUN) {
+                bot.think(world, cmd);
+                long t0 = System.nanoTime();
+                world.step(World.STEP, cmd);
+                long nanos = System.nanoTime() - t0;
+                histogram[(int) Math.min(nanos / 1000, HISTOGRAM_US)]++;
+                if (nanos > maxStepNanos) maxStepNanos = nanos;
+                steps++;
+            }
+            totalSteps += steps;
+
+            if (world.isFinished()) wins++;
+            else if (world.getPlayer().health.isDead()) deaths++;
+            else timeouts++;
+            world.dispose();
+
+            if ((run + 1) % 50 == 0 || run + 1 == runs) {
+                long heap = usedHeapAfterGc(memory);
+                System.out.printf("  %d partidas: heap %.1f MB (%+.1f MB)%n", run + 1,
+                    heap / 1048576.0, (heap - baseHeap) / 1048576.0);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d partidas: %d completadas, %d muertes, %d sin terminar%n", runs, wins, deaths, timeouts);
+        System.out.printf("%d pasos en %.1f s: %.0f pasos/s (%.0fx tiempo real)%n",
+            totalSteps, seconds, totalSteps / seconds, totalSteps * World.STEP / seconds);
+        System.out.printf("Tiempo por paso: p50 %d us, p95 %d us, p99 %d us, p99.9 %d us, máx %.2f ms%n",
+            percentile(histogram, totalSteps, 0.50), percentile(histogram, totalSteps, 0.95),
+            percentile(histogram, totalSteps, 0.99), percentile(histogram, totalSteps, 0.999),
+            maxStepNanos / 1e6);
+    }
+
+    private static long percentile(long[] histogram, long total, double p) {
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int us = 0; us < histogram.length; us++) {
+            seen += histogram[us];
+            if (seen >= target) return us;
+        }
+        return histogram.length - 1;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,578 @@
+package io.game.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.game.debug.GameEvents;
+import io.game.debug.PhaseTimer;
+import io.game.entities.EnemyGrid;
+import io.game.entities.EnemyStore;
+import io.game.entities.EnemyUpdater;
+import io.game.entities.characters.Orc;
+import io.game.entities.characters.Player;
+import io.game.generator.DungeonGenerator;
+import io.game.maps.DungeonCollision;
+import io.game.maps.DungeonGraph;
+import io.game.maps.Room;
+import io.game.maps.RoomActivation;
+import io.game.maps.RoomTracker;
+
+/**
+ * Estado y reglas del juego sin nada de gráficos, audio ni teclado:
+ * mazmorra, jugador, enemigos, combate y objetos.
+ *
+ * Se avanza con step(dt, órdenes) a paso fijo. GameScreen la dibuja y le pasa
+ * el teclado; sin pantalla (HeadlessSimulation) corre tan rápido como dé la CPU,
+ * útil para ajustar el balance, entrenar IA o como servidor.
+ *
+ * Con o sin gráficos las reglas son las mismas: los tiempos de animación que
+ * cuentan para el juego (aturdimiento, ataques, cuándo se retira un cadáver)
+ * salen de las duraciones declaradas en los AnimationHandle, nunca de las
+ * Animation cargadas, que solo sirven para dibujar. Lo comprueba
+ * WindowedReplayTest.
+ *
+ * Es determinista: con la misma semilla y las mismas órdenes paso a paso se
+ * obtiene exactamente la misma partida (ver InputRecorder / InputReplay).
+ */
+public class World {
+
+    /** Duración de un paso de simulación (60 pasos por segundo) */
+    public static final float STEP = 1f / 60f;
+    public static final int MAX_DUNGEONS = 5;
+
+    /** Avisos para quien presenta el mundo (pantalla, grabador...) */
+    public interface Listener {
+        void onLevelStart(int level);
+
+        /** Cambió el estado visible de una habitación (llave recogida, cofre abierto) */
+        default void onRoomChanged(Room room) {
+        }
+
+        /** El jugador entró por primera vez en una habitación (Room.discovered) */
+        default void onRoomDiscovered(Room room) {
+        }
+    }
+
+    private final float tileW, tileH;
+    private final long seed;
+    private final List<Listener> listeners = new ArrayList<>();
+    // flujos aleatorios del nivel (ver Rng): aparición de enemigos y botín de cofres
+    private final Rng spawnRandom = new Rng(0);
+    private final Rng lootRandom = new Rng(0);
+    private long aiSeed;
+
+    private final DungeonGenerator generator = new DungeonGenerator();
+    private DungeonGraph graph;
+    private final Player player;
+    private final EnemyStore enemies = new EnemyStore();
+    private final EnemyGrid enemyGrid = new EnemyGrid();
+    // enemigos y cadáveres por habitación, para que el dibujo solo mire las que se ven
+    private final EnemyGrid enemyCells = new EnemyGrid();
+    private final EnemyGrid corpseCells = new EnemyGrid();
+    private int indexedCorpses = -1;
+    private final RoomTracker roomTracker;
+    private final RoomActivation activation = new RoomActivation();
+    private final DungeonCollision collision;
+    private final EnemyUpdater enemyUpdater;
+
+    private int level = 1;
+    private boolean finished = false;
+    private long tick = 0;
+
+    // Fases de step() para el HUD de rendimiento (desactivado no mide nada)
+    public static final int PHASE_PLAYER = 0;
+    public static final int PHASE_ENEMIES = 1;
+    public static final int PHASE_SEPARATION = 2;
+    public static final int PHASE_COMBAT = 3;
+    public static final int PHASE_ROOMS = 4;
+    private final PhaseTimer phases = new PhaseTimer("simulación", "jugador", "enemigos", "separación", "combate", "salas");
+    private long generationNanos;
+
+    public World(float tileW, float tileH, long seed) {
+        this(tileW, tileH, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param seed semilla de la partida: mazmorras, enemigos y botín salen de ella
+     * @param threads hilos para actualizar enemigos (1 = todo en el hilo que llama a step);
+     *                no cambia el resultado, solo la velocidad
+     */
+    public World(float tileW, float tileH, long seed, int threads) {
+        this.tileW = tileW;
+        this.tileH = tileH;
+        this.seed = seed;
+
+        player = new Player();
+        player.size.set(tileW / 7f, tileH / 7f);
+
+        roomTracker = new RoomTracker(tileW, tileH);
+        collision = new DungeonCollision(tileW, tileH);
+        enemyUpdater = new EnemyUpdater(enemies, collision, activation, tileW, tileH, threads);
+
+        // simular a detalle solo cerca de la habitación del jugador
+        roomTracker.addListener(new RoomTracker.Listener() {
+            @Override
+            public void onEnter(Room room) {
+                activation.recenter(room);
+                if (!room.discovered) {
+                    room.discovered = true;
+                    for (int i = 0; i < listeners.size(); i++) listeners.get(i).onRoomDiscovered(room);
+                }
+            }
+
+            @Override
+            public void onExit(Room room) {
+            }
+        });
+    }
+
+    public void addListener(Listener l) {
+        listeners.add(l);
+    }
+
+    /**
+     * Genera el nivel indicado y coloca al jugador en la habitación inicial
+     */
+    public void start(int newLevel) {
+        GameEvents.LevelStart event = GameEvents.beginLevel();
+        this.level = newLevel;
+        this.finished = false;
+
+        // cada nivel tiene su propia semilla derivada de la de la partida,
+        // y cada subsistema su propio flujo derivado de la del nivel
+        long levelSeed = Rng.derive(seed, level);
+        generator.setSeed(Rng.derive(levelSeed, Rng.GENERATOR));
+        spawnRandom.setSeed(Rng.derive(levelSeed, Rng.SPAWN));
+        lootRandom.setSeed(Rng.derive(levelSeed, Rng.LOOT));
+        aiSeed = Rng.derive(levelSeed, Rng.AI);
+
+        // generate into generator.graph (generator clears graph internally)
+        long generationStart = System.nanoTime();
+        generator.generate(level);
+        generationNanos = System.nanoTime() - generationStart;
+        graph = generator.getGraph();
+
+        // put player in the start room (0,0) center
+        player.position.set(0f + tileW * 0.5f, 0f + tileH * 0.5f);
+        player.movement.set(0f, 0f);
+        player.savePreviousPosition();
+        collision.setGraph(graph);
+        activation.reset(graph);
+        roomTracker.reset(graph);
+        roomTracker.update(player.position.x, player.position.y);
+
+        // Resetear llaves al cambiar de nivel
+        player.resetKeys();
+
+        // Generar enemigos aleatoriamente en las habitaciones
+        generateEnemies();
+        indexedCorpses = -1;
+        indexEnemies();
+        GameEvents.commitLevel(event, level, graph.size(), enemies.count, seed);
+
+        for (int i = 0; i < listeners.size(); i++) listeners.get(i).onLevelStart(level);
+    }
+
+    /**
+     * Reinicia el juego desde el nivel 1 con la vida completa
+     */
+    public void restart() {
+        player.health.heal(player.health.getMaxHealth());
+        start(1);
+    }
+
+    /**
+     * Un paso de simulación de duración fija.
+     * @return true si se cambió de nivel o terminó la partida
+     */
+    public boolean step(float dt, InputCommand cmd) {
+        tick++;
+        phases.begin();
+        player.savePreviousPosition();
+        player.applyCommand(cmd);
+
+        // update player with collision
+        updatePlayerWithCollision(dt);
+        phases.lap(PHASE_PLAYER);
+
+        // Actualizar enemigos (IA, movimiento y paredes; en paralelo si hay muchos)
+        enemyUpdater.update(dt, player.position.x, player.position.y);
+        phases.lap(PHASE_ENEMIES);
+
+        // Resolver colisiones entre entidades (empujar para evitar solapamiento)
+        resolveEntityCollisions();
+        phases.lap(PHASE_SEPARATION);
+
+        // Verificar combate entre jugador y enemigos
+        checkCombat();
+        phases.lap(PHASE_COMBAT);
+
+        // Sacar de la simulación a los muertos cuya animación de muerte terminó
+        retireCorpses();
+
+        // la habitación actual solo se recalcula cuando el jugador cambia de celda
+        roomTracker.update(player.position.x, player.position.y);
+
+        // interacciones (llave, cofre, escaleras) solo al pulsar E
+        boolean interactPressed = player.wantsNextLevel();
+        Room current = roomTracker.getCurrent();
+        boolean changed = current != null && interactPressed && interact(current);
+        indexEnemies();
+        phases.lap(PHASE_ROOMS);
+        return changed;
+    }
+
+    // Índices por habitación de enemigos y cadáveres con las posiciones de este paso;
+    // los cadáveres no se mueven, solo se reindexan cuando se retira alguno
+    private void indexEnemies() {
+        enemyCells.buildAll(enemies, tileW);
+        if (indexedCorpses != enemies.corpseCount) {
+            corpseCells.buildCorpses(enemies, tileW);
+            indexedCorpses = enemies.corpseCount;
+        }
+    }
+
+    // ----------------------------
+    // Actualiza el jugador con detección de colisiones contra paredes
+    // ----------------------------
+    private void updatePlayerWithCollision(float delta) {
+        // Guardar posición anterior
+        float oldX = player.position.x;
+        float oldY = player.position.y;
+
+        // Actualizar jugador (calcula movimiento)
+        player.update(delta);
+
+        // Si no hay movimiento, no hay colisión que verificar
+        if (player.movement.isZero()) {
+            return;
+        }
+
+        // Verificar colisión y ajustar posición si es necesario
+        if (checkCollisionWithWalls()) {
+            // Colisión detectada, intentar movimiento en X solo
+            player.position.set(oldX, oldY);
+            player.position.x += player.movement.x * delta;
+
+            if (checkCollisionWithWalls()) {
+                // Aún hay colisión, intentar solo Y
+                player.position.x = oldX;
+                player.position.y = oldY + player.movement.y * delta;
+
+                if (checkCollisionWithWalls()) {
+                    // Colisión en ambos ejes, restaurar posición original
+                    player.position.set(oldX, oldY);
+                }
+            }
+        }
+    }
+
+    private void notifyRoomChanged(Room room) {
+        for (int i = 0; i < listeners.size(); i++) listeners.get(i).onRoomChanged(room);
+    }
+
+    // ----------------------------
+    // Verifica si el jugador colisiona con paredes de habitaciones
+    // ----------------------------
+    private boolean checkCollisionWithWalls() {
+        return collision.collides(player.position.x, player.position.y, player.size.x, player.size.y);
+    }
+
+    // ----------------------------
+    // Interactúa con la habitación actual (tecla E).
+    // Devuelve true si se cambió de nivel o terminó la partida.
+    // ----------------------------
+    private boolean interact(Room current) {
+        // Verificar si hay una llave en la habitación
+        if (current.hasKey && !current.keyCollected) {
+            current.keyCollected = true;
+            notifyRoomChanged(current);
+            player.addKey();
+            System.out.println("¡Llave recogida! Total: " + player.getKeys());
+        }
+        // Verificar si hay un cofre cerrado en la habitación
+        else if (current.hasChest && !current.chestOpened) {
+            if (player.useKey()) {
+                current.chestOpened = true;
+                notifyRoomChanged(current);
+                // Dar frascos al abrir el cofre (1-3 frascos aleatorios)
+                int flasksFound = 1 + lootRandom.nextInt(3);
+                for (int i = 0; i < flasksFound; i++) {
+                    player.addFlask();
+                }
+                System.out.println("¡Cofre abierto! Encontraste " + flasksFound + " flask(s). Total: " + player.getFlasks() + " - Llaves restantes: " + player.getKeys());
+            } else {
+                System.out.println("¡Necesitas una llave para abrir el cofre!");
+            }
+        }
+        // Verificar escaleras
+        else if (current.hasStairs) {
+            if (level >= MAX_DUNGEONS) {
+                finished = true;
+            } else {
+                start(level + 1);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // ----------------------------
+    // Genera enemigos aleatoriamente en las habitaciones (excepto la inicial)
+    // ----------------------------
+    private void generateEnemies() {
+        enemies.clear();
+        enemies.setSize(tileW / 7f, tileH / 7f);
+
+        // Número de enemigos basado en el nivel
+        int enemiesPerRoom = 1 + (level / 3); // más enemigos en niveles altos
+
+        List<Room> rooms = graph.getRooms();
+        for (int r = 0; r < rooms.size(); r++) {
+            Room room = rooms.get(r);
+            // No generar enemigos en la habitación inicial (0,0)
+            if (room.x == 0 && room.y == 0) continue;
+
+            // Probabilidad de que aparezcan enemigos (80%)
+            if (spawnRandom.nextFloat() < 0.8f) {
+                int numEnemies = spawnRandom.nextInt(enemiesPerRoom) + 1;
+
+                for (int i = 0; i < numEnemies; i++) {
+                    // Posición en el centro de la habitación
+                    float centerX = room.x * tileW + tileW * 0.5f;
+                    float centerY = room.y * tileH + tileH * 0.5f;
+
+                    // Pequeña variación aleatoria desde el centro (±20% del tamaño)
+                    float offsetX = (spawnRandom.nextFloat() - 0.5f) * tileW * 0.4f;
+                    float offsetY = (spawnRandom.nextFloat() - 0.5f) * tileH * 0.4f;
+
+                    float x = centerX + offsetX;
+                    float y = centerY + offsetY;
+
+                    // flujo propio de cada orco, derivado de su número de aparición
+                    Orc.spawn(enemies, x, y, Rng.derive(aiSeed, enemies.count));
+                }
+            }
+        }
+    }
+
+    // ----------------------------
+    // Resuelve colisiones entre entidades (jugador y enemigos)
+    // Empuja las entidades para evitar que se solapen
+    // ----------------------------
+    private void resolveEntityCollisions() {
+        float collisionRadius = player.size.x * 0.3f; // Radio de colisión
+        EnemyStore e = enemies;
+
+        // Colisión entre jugador y enemigos
+        for (int i = 0; i < e.count; i++) {
+            if (e.isDead(i) || e.activity[i] == RoomActivation.FROZEN) continue;
+
+            float dx = player.position.x - e.x[i];
+            float dy = player.position.y - e.y[i];
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+            if (distance < collisionRadius && distance > 0) {
+                // Las entidades están solapadas, empujar
+                float overlap = collisionRadius - distance;
+                float pushX = (dx / distance) * overlap * 0.5f;
+                float pushY = (dy / distance) * overlap * 0.5f;
+
+                // Empujar ambas entidades en direcciones opuestas
+                player.position.x += pushX;
+                player.position.y += pushY;
+                e.x[i] -= pushX;
+                e.y[i] -= pushY;
+            }
+        }
+
+        // Colisiones entre enemigos: cada uno solo contra los de su celda y las
+        // ocho vecinas de la rejilla (celdas del tamaño del radio de colisión)
+        EnemyGrid grid = enemyGrid;
+        grid.build(e, collisionRadius);
+        for (int i = 0; i < e.count; i++) {
+            if (!grid.contains(i)) continue;
+            int cx = grid.cellX(i);
+            int cy = grid.cellY(i);
+
+            for (int ny = cy - 1; ny <= cy + 1; ny++) {
+                for (int nx = cx - 1; nx <= cx + 1; nx++) {
+                    int b = grid.bucket(nx, ny);
+                    for (int k = grid.start(b), end = grid.end(b); k < end; k++) {
+                        int j = grid.entry(k);
+                        // cada pareja una vez, y solo si j es de esta celda (no de otra con el mismo hueco)
+                        if (j <= i || grid.cellX(j) != nx || grid.cellY(j) != ny) continue;
+                        separate(e, i, j, collisionRadius);
+                    }
+                }
+            }
+        }
+    }
+
+    // Empuja a los enemigos i y j en direcciones opuestas si se solapan
+    private static void separate(EnemyStore e, int i, int j, float collisionRadius) {
+        float dx = e.x[i] - e.x[j];
+        float dy = e.y[i] - e.y[j];
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+        if (distance < collisionRadius && distance > 0) {
+            float overlap = collisionRadius - distance;
+            float pushX = (dx / distance) * overlap * 0.5f;
+            float pushY = (dy / distance) * overlap * 0.5f;
+
+            e.x[i] += pushX;
+            e.y[i] += pushY;
+            e.x[j] -= pushX;
+            e.y[j] -= pushY;
+        }
+    }
+
+    // ----------------------------
+    // Verifica combate entre jugador y enemigos
+    // ----------------------------
+    private void checkCombat() {
+        EnemyStore e = enemies;
+
+        // El jugador golpea solo en el paso en que su ataque llega al impacto,
+        // y a un único enemigo (el primero a su alcance)
+        if (player.consumeHit()) {
+            for (int i = 0; i < e.count; i++) {
+                if (e.isDead(i)) continue;
+
+                if (player.canReach(e.x[i], e.y[i])) {
+                    Orc.takeDamage(e, i, player.combat.getDamage());
+                    break;
+                }
+            }
+        }
+
+        // Enemigos cuyo ataque llegó al impacto en este paso
+        for (int i = 0; i < e.count; i++) {
+            if (!e.hitPending[i]) continue;
+
+            if (Orc.consumeHit(e, i, player.position.x, player.position.y) && !e.isDead(i)) {
+                player.takeDamage(Orc.DAMAGE);
+            }
+        }
+    }
+
+    // ----------------------------
+    // Retira los cadáveres asentados: dejan de ocupar la parte activa del
+    // almacén, así que IA, colisiones y combate ya no los recorren
+    // ----------------------------
+    private void retireCorpses() {
+        EnemyStore e = enemies;
+        // hacia atrás: el que se mueve al hueco (el último) ya se ha revisado
+        for (int i = e.count - 1; i >= 0; i--) {
+            if (Orc.isSettled(e, i)) e.retire(i);
+        }
+    }
+
+    /**
+     * Resumen del estado de la simulación: dos partidas con el mismo resumen
+     * en el mismo paso han evolucionado igual
+     */
+    public long stateHash() {
+        long h = 1125899906842597L;
+        h = 31 * h + tick;
+        h = 31 * h + level;
+        h = 31 * h + Float.floatToIntBits(player.position.x);
+        h = 31 * h + Float.floatToIntBits(player.position.y);
+        h = 31 * h + player.health.getHealth();
+        h = 31 * h + player.getKeys();
+        h = 31 * h + player.getFlasks();
+        EnemyStore e = enemies;
+        for (int i = 0; i < e.count; i++) {
+            h = 31 * h + Float.floatToIntBits(e.x[i]);
+            h = 31 * h + Float.floatToIntBits(e.y[i]);
+            h = 31 * h + e.health[i];
+        }
+        return h;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Partida terminada: muerte del jugador o escaleras del último nivel */
+    public boolean isOver() {
+        return finished || player.health.isDead();
+    }
+
+    /** Se bajaron las escaleras del último nivel */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Enemigos por celda de habitación (tileW), según su posición al final del
+     * último paso; la de dibujo, interpolada, puede estar a un paso de distancia
+     */
+    public EnemyGrid getEnemyCells() {
+        return enemyCells;
+    }
+
+    /** Cadáveres retirados por celda de habitación (tileW) */
+    public EnemyGrid getCorpseCells() {
+        return corpseCells;
+    }
+
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    public DungeonGraph getGraph() {
+        return graph;
+    }
+
+    public List<Room> getRooms() {
+        return graph.getRooms();
+    }
+
+    public RoomActivation getActivation() {
+        return activation;
+    }
+
+    public DungeonCollision getCollision() {
+        return collision;
+    }
+
+    public RoomTracker getRoomTracker() {
+        return roomTracker;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /** Tiempos de las fases de step(), acumulados por frame (ver PhaseTimer) */
+    public PhaseTimer getPhaseTimer() {
+        return phases;
+    }
+
+    /** Lo que tardó en generarse la mazmorra del nivel actual, en milisegundos */
+    public float getGenerationMillis() {
+        return generationNanos / 1e6f;
+    }
+
+    /** Pasos simulados desde que se creó el mundo */
+    public long getTick() {
+        return tick;
+    }
+
+    public float getTileWidth() {
+        return tileW;
+    }
+
+    public float getTileHeight() {
+        return tileH;
+    }
+
+    public void dispose() {
+        enemyUpdater.dispose();
+    }
+}
@@ -0,0 +1,37 @@
+package io.game.managers;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Animation.PlayMode;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Resuelve handles de animación como lo haría Resources.finish() en el juego
+ * con ventana, pero sin texturas: frames vacíos y una duración distinta de la
+ * declarada, para comprobar que la simulación no depende de ellas.
+ */
+public final class FakeAnimations {
+
+    public static final String[] CLIPS = {"idle", "walk", "hurt", "death", "attack01", "attack02"};
+
+    private FakeAnimations() {
+    }
+
+    public static void install(String basePath, float frameSeconds) {
+        for (String name : CLIPS) {
+            AnimationHandle h = Resources.animationHandle(name, basePath);
+            PlayMode mode = name.equals("idle") || name.equals("walk") ? PlayMode.LOOP : PlayMode.NORMAL;
+            h.animation = new Animation<>(frameSeconds, new TextureRegion(), new TextureRegion(), new TextureRegion());
+            h.animation.setPlayMode(mode);
+            h.looping = AnimationHandle.isLooping(mode);
+        }
+    }
+
+    /** Vuelve al estado sin gráficos (handles sin animación) */
+    public static void clear(String basePath) {
+        for (String name : CLIPS) {
+            AnimationHandle h = Resources.animationHandle(name, basePath);
+            h.animation = null;
+            h.looping = false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.game.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.game.debug.AllocationProbe;
+import io.game.debug.DebugDraw;
+import io.game.debug.PhaseTimer;
+import io.game.entities.EnemyGrid;
+import io.game.entities.EnemyStore;
+import io.game.entities.characters.Orc;
+import io.game.maps.Room;
+import io.game.screens.DepthOrder;
+
+/**
+ * En régimen estable (sin cambiar de nivel) un paso de simulación y los
+ * auxiliares de dibujo que no tocan la GPU no reservan memoria.
+ *
+ * Se calienta con WARMUP pasos (arrays que crecen, JIT) y después cada paso
+ * se mide con AllocationProbe: cualquier byte reservado hace fallar el test.
+ *
+ * Al instalar una compilación nueva del JIT la JVM puede reservar unos bytes
+ * una sola vez en el hilo que la estrena (con -Xint no aparecen), y según la
+ * carga de la máquina eso puede caer después del calentamiento. Por eso se
+ * mide en ventanas de MEASURED pasos y basta una limpia de WINDOWS: lo que
+ * reserve el juego en cada paso sale en todas.
+ */
+public class AllocationTest {
+
+    private static final long SEED = 42L;
+    private static final int WARMUP = 2000;
+    private static final int MEASURED = 1000;
+    private static final int WINDOWS = 5;
+
+    private World world;
+    private final InputCommand cmd = new InputCommand();
+    private final DepthOrder depthOrder = new DepthOrder();
+    private final PhaseTimer phases = new PhaseTimer("dibujo", "mazmorra", "entidades");
+
+    @Before
+    public void setUp() {
+        // un hilo: los trabajadores del ForkJoin no cuentan en la medición del hilo actual
+        world = new World(HeadlessSimulation.TILE_SIZE, HeadlessSimulation.TILE_SIZE, SEED, 1);
+        world.start(1);
+        phases.setEnabled(true);
+        DebugDraw.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        DebugDraw.setEnabled(false);
+        world.dispose();
+    }
+
+    @Test
+    public void steadyStateStepDoesNotAllocate() {
+        AllocationProbe probe = new AllocationProbe(true);
+        assumeTrue("la JVM no mide reservas por hilo", probe.isEnabled());
+
+        int step = 0;
+        for (; step < WARMUP; step++) frame(step);
+
+        long total = -1;
+        for (int w = 0; w < WINDOWS && total != 0; w++) {
+            total = 0;
+            for (int i = 0; i < MEASURED; i++, step++) {
+                probe.begin();
+                frame(step);
+                probe.end();
+                total += probe.getLastFrameBytes();
+            }
+        }
+        assertEquals("bytes reservados en " + MEASURED + " pasos", 0L, total);
+    }
+
+    /** Un paso con órdenes que recorren la habitación y atacan, y lo que haría el dibujo sin GPU */
+    private void frame(int i) {
+        cmd.clear();
+        // vaivén horizontal y vertical con ataques: combate, empujones y paredes, sin interactuar
+        cmd.press((i / 90) % 2 == 0 ? InputCommand.LEFT : InputCommand.RIGHT);
+        cmd.press((i / 130) % 2 == 0 ? InputCommand.UP : InputCommand.DOWN);
+        if (i % 20 == 0) cmd.press(InputCommand.ATTACK1);
+        world.step(World.STEP, cmd);
+
+        phases.begin();
+        EnemyStore enemies = world.getEnemies();
+        Orc.updateClocks(world.getTick() * World.STEP);
+        // lo que hace GameScreen con los orcos en pantalla: aquí todos los de la rejilla
+        EnemyGrid cells = world.getEnemyCells();
+        depthOrder.begin();
+        for (int k = 0; k < enemies.count; k++) {
+            if (cells.contains(k)) depthOrder.add(k);
+        }
+        depthOrder.update(enemies, world.getPlayer().position.y, 0.5f);
+        phases.lap(0);
+        Room room = world.getRoomTracker().getCurrent();
+        if (room != null) {
+            world.getActivation().debugDraw(room, world.getTileWidth(), world.getTileHeight());
+            world.getCollision().debugDraw(room);
+        }
+        DebugDraw.clear();
+        phases.lap(1);
+        phases.endFrame();
+    }
+}
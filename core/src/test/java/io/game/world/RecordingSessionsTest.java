@@ -0,0 +1,82 @@
+package io.game.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Una grabación con varias sesiones (se sale al menú y se vuelve a jugar)
+ * se reproduce entera, y el resumen de cada cierre de sesión se comprueba.
+ */
+public class RecordingSessionsTest {
+
+    private static final long SEED = 7L;
+    private static final int STEPS = 600;
+
+    // bytes escritos hasta el cierre de la primera sesión (incluido su resumen)
+    private int firstSessionEnd;
+
+    @Test
+    public void sessionsReplayAndCheckEveryClose() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long expected = record(out);
+
+        InputReplay replay = new InputReplay(new ByteArrayInputStream(out.toByteArray()));
+        World replayed = ReplayRunner.replay(replay, 1);
+        assertTrue(replay.isEnded());
+        assertEquals(0, replay.getFailedCheckpoints());
+        assertEquals(expected, replayed.stateHash());
+        replayed.dispose();
+    }
+
+    @Test
+    public void mismatchedSessionCloseIsReported() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        record(out);
+        byte[] bytes = out.toByteArray();
+        // último byte del resumen de la primera sesión
+        bytes[firstSessionEnd - 1] ^= 1;
+
+        InputReplay replay = new InputReplay(new ByteArrayInputStream(bytes));
+        ReplayRunner.replay(replay, 1).dispose();
+        assertEquals(1, replay.getFailedCheckpoints());
+    }
+
+    /** Dos sesiones como las de GameScreen: jugar, volver al menú, reiniciar y jugar */
+    private long record(ByteArrayOutputStream out) throws IOException {
+        World world = new World(HeadlessSimulation.TILE_SIZE, HeadlessSimulation.TILE_SIZE, SEED, 1);
+        world.start(1);
+        BotController bot = new BotController(SEED);
+        InputCommand cmd = new InputCommand();
+
+        InputRecorder recorder = new InputRecorder(out, world);
+        play(world, bot, cmd, recorder);
+        recorder.close(world);
+        firstSessionEnd = out.size();
+
+        // de vuelta del menú: el reinicio se graba al reabrir
+        world.restart();
+        recorder = InputRecorder.resume(out);
+        recorder.recordRestart();
+        play(world, bot, cmd, recorder);
+        recorder.close(world);
+
+        long hash = world.stateHash();
+        world.dispose();
+        return hash;
+    }
+
+    private static void play(World world, BotController bot, InputCommand cmd, InputRecorder recorder)
+            throws IOException {
+        for (int i = 0; i < STEPS && !world.isOver(); i++) {
+            bot.think(world, cmd);
+            recorder.record(cmd);
+            world.step(World.STEP, cmd);
+        }
+    }
+}
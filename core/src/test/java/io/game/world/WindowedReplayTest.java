@@ -0,0 +1,79 @@
+package io.game.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.game.entities.EnemyStore;
+import io.game.entities.characters.Orc;
+import io.game.entities.characters.Player;
+import io.game.managers.FakeAnimations;
+
+/**
+ * Una partida grabada en el juego con ventana (animaciones cargadas) se
+ * reproduce sin gráficos con el mismo hash de estado: la simulación usa las
+ * duraciones declaradas en los handles y nunca las de las Animation.
+ */
+public class WindowedReplayTest {
+
+    // semilla en la que el piloto automático mata un orco pronto (hacia el paso 600)
+    private static final long SEED = 29L;
+    private static final int STEPS = 20000;
+
+    @After
+    public void tearDown() {
+        FakeAnimations.clear(Player.BASE_PATH);
+        FakeAnimations.clear(Orc.BASE_PATH);
+        Orc.resolveAnimations();
+    }
+
+    @Test
+    public void windowedRecordingReplaysHeadless() throws IOException {
+        // "con ventana": animaciones resueltas que duran otra cosa que lo declarado
+        FakeAnimations.install(Player.BASE_PATH, 0.37f);
+        FakeAnimations.install(Orc.BASE_PATH, 0.37f);
+        Orc.resolveAnimations();
+
+        World recorded = new World(HeadlessSimulation.TILE_SIZE, HeadlessSimulation.TILE_SIZE, SEED, 1);
+        recorded.start(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(out, recorded);
+        // el piloto automático garantiza combate: orcos heridos, muertos y retirados
+        BotController bot = new BotController(SEED);
+        InputCommand cmd = new InputCommand();
+        // se corta poco después de la primera muerte, con el cadáver aún en el almacén:
+        // es donde la duración de la animación de muerte cambia el estado
+        int stopAt = STEPS;
+        for (int i = 0; i < stopAt && !recorded.isOver(); i++) {
+            bot.think(recorded, cmd);
+            recorder.record(cmd);
+            recorded.step(World.STEP, cmd);
+            if (stopAt == STEPS && hasDyingOrc(recorded.getEnemies())) stopAt = i + 10;
+        }
+        assertTrue("la partida grabada no llegó a matar ningún orco", stopAt < STEPS);
+        recorder.close(recorded);
+        long expected = recorded.stateHash();
+        recorded.dispose();
+
+        // sin gráficos, como ReplayRunner
+        FakeAnimations.clear(Player.BASE_PATH);
+        FakeAnimations.clear(Orc.BASE_PATH);
+        Orc.resolveAnimations();
+        World replayed = ReplayRunner.replay(new InputReplay(new ByteArrayInputStream(out.toByteArray())), 1);
+        assertEquals(expected, replayed.stateHash());
+        replayed.dispose();
+    }
+
+    private static boolean hasDyingOrc(EnemyStore enemies) {
+        for (int i = 0; i < enemies.count; i++) {
+            if (enemies.isDead(i)) return true;
+        }
+        return false;
+    }
+}